@@ -0,0 +1,113 @@
+package com.kaba4cow.csvtable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of rows serialized per second by {@link CSVTable#toString()} and
+ * {@link CSVTable#writeTo(java.io.Writer)}, against a baseline that escapes every field the way rows were serialized
+ * before escaping was done in a single scan. Run with {@code mvn -P jmh package} and
+ * {@code java -jar target/benchmarks.jar WriterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriterBenchmark {
+
+	private static final int ROWS = 10_000;
+	private static final int COLUMNS = 8;
+
+	/**
+	 * The percentage of fields that contain a delimiter, a quote or a line break and have to be quoted.
+	 */
+	@Param({ "0", "10", "50" })
+	private int quotedPercent;
+
+	private CSVTable table;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42L);
+		table = new CSVTable().resizeTable(COLUMNS);
+		for (int row = 0; row < ROWS; row++) {
+			CSVRow csvRow = table.addRow();
+			for (int column = 0; column < COLUMNS; column++)
+				csvRow.set(column, field(random));
+		}
+	}
+
+	private String field(Random random) {
+		StringBuilder builder = new StringBuilder();
+		int length = 4 + random.nextInt(12);
+		for (int i = 0; i < length; i++)
+			builder.append((char) ('a' + random.nextInt(26)));
+		if (random.nextInt(100) < quotedPercent)
+			builder.insert(random.nextInt(length), random.nextBoolean() ? ",\"" : "\n");
+		return builder.toString();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public String serialize() {
+		return table.toString();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public StringWriter write() throws IOException {
+		StringWriter writer = new StringWriter();
+		table.writeTo(writer);
+		return writer;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public String serializeBaseline() {
+		char delimiter = table.delimiter();
+		StringBuilder builder = new StringBuilder();
+		for (int row = 0; row < table.rowCount(); row++) {
+			if (row > 0)
+				builder.append('\n');
+			CSVRow csvRow = table.getRow(row);
+			StringBuilder line = new StringBuilder();
+			for (int column = 0; column < csvRow.columns(); column++) {
+				if (column > 0)
+					line.append(delimiter);
+				line.append(escapeBaseline(csvRow.get(column), delimiter));
+			}
+			builder.append(line.toString());
+		}
+		return builder.toString();
+	}
+
+	private static String escapeBaseline(Object data, char delimiter) {
+		if (Objects.isNull(data))
+			return "";
+		String string = data.toString();
+		if (string.contains(Character.toString(delimiter)) || string.contains("\n") || string.contains("\r")
+				|| string.contains("\""))
+			return String.format("\"%s\"", string.replace("\"", "\"\""));
+		else
+			return string;
+	}
+
+}
@@ -0,0 +1,175 @@
+package com.kaba4cow.csvtable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grouping of rows by the values of one or more columns, and the aggregates computed for every group. Each aggregate
+ * becomes a column of the result, after the grouping columns, in the order the aggregates were added.
+ *
+ * <p>
+ * Sums, averages, minimums and maximums read numbers as numbers, whether they are stored as numbers or as strings, so
+ * integral values are summed exactly as {@link Long} and other numbers as {@link Double}. Values that are not numbers
+ * are ignored by sums and averages, and are ordered by minimums and maximums as in a {@link CSVSortedIndex}. Null
+ * values are ignored by every aggregate except {@link #count()}, and an aggregate over a group without values is
+ * {@code null}.
+ *
+ * @see CSVTable#aggregate(Aggregation, boolean)
+ * @see CSVReader#aggregate(Aggregation)
+ */
+public class Aggregation {
+
+	private final int[] groupColumns;
+	private final List<Function> functions;
+	private final List<Integer> columns;
+
+	/**
+	 * Creates an {@code Aggregation} grouping rows by the values of the specified columns. Rows are in the same group
+	 * when their values are equal in all of the columns, integral numbers being equal by value regardless of their type.
+	 * Without columns, all rows belong to a single group.
+	 *
+	 * @param groupColumns the indexes of the grouping columns
+	 *
+	 * @throws IllegalArgumentException if a column index is negative
+	 */
+	public Aggregation(int... groupColumns) {
+		for (int column : groupColumns)
+			checkColumn(column);
+		this.groupColumns = groupColumns.clone();
+		this.functions = new ArrayList<>();
+		this.columns = new ArrayList<>();
+	}
+
+	/**
+	 * Adds the number of rows of each group, as a {@link Long}.
+	 *
+	 * @return a reference to this object
+	 */
+	public Aggregation count() {
+		return add(Function.COUNT, -1);
+	}
+
+	/**
+	 * Adds the number of distinct non-null values of a column in each group, as a {@link Long}.
+	 *
+	 * @param column the index of the column
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the column index is negative
+	 */
+	public Aggregation countDistinct(int column) {
+		return add(Function.COUNT_DISTINCT, column);
+	}
+
+	/**
+	 * Adds the sum of the numbers of a column in each group.
+	 *
+	 * @param column the index of the column
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the column index is negative
+	 */
+	public Aggregation sum(int column) {
+		return add(Function.SUM, column);
+	}
+
+	/**
+	 * Adds the smallest value of a column in each group.
+	 *
+	 * @param column the index of the column
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the column index is negative
+	 */
+	public Aggregation min(int column) {
+		return add(Function.MIN, column);
+	}
+
+	/**
+	 * Adds the largest value of a column in each group.
+	 *
+	 * @param column the index of the column
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the column index is negative
+	 */
+	public Aggregation max(int column) {
+		return add(Function.MAX, column);
+	}
+
+	/**
+	 * Adds the average of the numbers of a column in each group, as a {@link Double}.
+	 *
+	 * @param column the index of the column
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the column index is negative
+	 */
+	public Aggregation avg(int column) {
+		return add(Function.AVG, column);
+	}
+
+	private Aggregation add(Function function, int column) {
+		if (function != Function.COUNT)
+			checkColumn(column);
+		functions.add(function);
+		columns.add(column);
+		return this;
+	}
+
+	private static void checkColumn(int column) {
+		if (column <= -1)
+			throw new IllegalArgumentException(String.format("Column %s must be greater than -1", column));
+	}
+
+	int[] groupColumns() {
+		return groupColumns;
+	}
+
+	int aggregateCount() {
+		return functions.size();
+	}
+
+	Function function(int aggregate) {
+		return functions.get(aggregate);
+	}
+
+	int column(int aggregate) {
+		return columns.get(aggregate);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("group by");
+		for (int column : groupColumns)
+			builder.append(' ').append(column);
+		for (int aggregate = 0; aggregate < functions.size(); aggregate++)
+			builder.append(", ").append(functions.get(aggregate).name(columns.get(aggregate)));
+		return builder.toString();
+	}
+
+	enum Function {
+
+		COUNT("count"), COUNT_DISTINCT("count_distinct"), SUM("sum"), MIN("min"), MAX("max"), AVG("avg");
+
+		private final String label;
+
+		Function(String label) {
+			this.label = label;
+		}
+
+		/**
+		 * Returns the name of the aggregate of the column with the specified name, as written in the header of the result.
+		 */
+		String name(Object column) {
+			return this == COUNT ? label : String.format("%s(%s)", label, column);
+		}
+
+	}
+
+}
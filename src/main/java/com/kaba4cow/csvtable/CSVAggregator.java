@@ -0,0 +1,387 @@
+package com.kaba4cow.csvtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Computes an {@link Aggregation} over rows. The values of every grouping column are mapped to dense integer codes,
+ * through a primitive map for integral values and through the dictionary of dictionary-encoded columns, and the codes of
+ * several columns are combined pairwise into dense group ids through primitive maps keyed on both codes. Aggregates are
+ * accumulated in primitive arrays indexed by group id, and groups are ordered by their first row.
+ */
+class CSVAggregator {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private final Aggregation aggregation;
+	private final int[] groupSlots;
+	private final int[] slots;
+	private final Codes[] groupCodes;
+	private final CSVLongMap[] pairs;
+	private final int[] pairCounts;
+	private final int[] rowCodes;
+	private final Accumulator[] accumulators;
+	private int[] groupValues;
+	private int groupCount;
+	private int capacity;
+
+	/**
+	 * Creates an aggregator reading the grouping columns and the aggregated columns from the specified slots, the slot
+	 * of a {@link Aggregation#count()} being ignored.
+	 */
+	CSVAggregator(Aggregation aggregation, int[] groupSlots, int[] slots) {
+		this.aggregation = aggregation;
+		this.groupSlots = groupSlots;
+		this.slots = slots;
+		this.groupCodes = new Codes[groupSlots.length];
+		this.pairs = new CSVLongMap[groupSlots.length];
+		this.pairCounts = new int[groupSlots.length];
+		for (int i = 0; i < groupSlots.length; i++) {
+			groupCodes[i] = new Codes();
+			pairs[i] = new CSVLongMap();
+		}
+		this.rowCodes = new int[groupSlots.length];
+		this.accumulators = new Accumulator[slots.length];
+		for (int aggregate = 0; aggregate < slots.length; aggregate++)
+			accumulators[aggregate] = accumulator(aggregation.function(aggregate));
+		this.groupValues = new int[0];
+		this.groupCount = 0;
+		this.capacity = 0;
+		if (groupSlots.length == 0)
+			newGroup();
+	}
+
+	void add(CSVRow row) {
+		for (int i = 0; i < groupSlots.length; i++) {
+			CSVColumn column = row.store(groupSlots[i]);
+			if (Objects.nonNull(column) && column.isEncoded())
+				rowCodes[i] = groupCodes[i].code((CSVColumn.DictionaryColumn) column, row.storeIndex());
+			else
+				rowCodes[i] = groupCodes[i].code(row.value(groupSlots[i]));
+		}
+		int group = group();
+		for (int aggregate = 0; aggregate < accumulators.length; aggregate++)
+			accumulators[aggregate].add(group, slots[aggregate] < 0 ? null : row.value(slots[aggregate]));
+	}
+
+	void add(List<Object> columns) {
+		for (int i = 0; i < groupSlots.length; i++)
+			rowCodes[i] = groupCodes[i].code(value(columns, groupSlots[i]));
+		int group = group();
+		for (int aggregate = 0; aggregate < accumulators.length; aggregate++)
+			accumulators[aggregate].add(group, value(columns, slots[aggregate]));
+	}
+
+	private static Object value(List<Object> columns, int slot) {
+		return slot >= 0 && slot < columns.size() ? columns.get(slot) : null;
+	}
+
+	/**
+	 * Returns the id of the group of the current row codes, creating the group if it is new.
+	 */
+	private int group() {
+		if (rowCodes.length == 0)
+			return 0;
+		int group = rowCodes[0];
+		for (int i = 1; i < rowCodes.length; i++) {
+			long pair = (long) group << 32 | rowCodes[i] & 0xFFFFFFFFL;
+			Object id = pairs[i].get(pair);
+			if (Objects.isNull(id)) {
+				id = pairCounts[i]++;
+				pairs[i].put(pair, id);
+			}
+			group = (Integer) id;
+		}
+		if (group == groupCount) {
+			newGroup();
+			System.arraycopy(rowCodes, 0, groupValues, group * rowCodes.length, rowCodes.length);
+		}
+		return group;
+	}
+
+	private void newGroup() {
+		if (groupCount == capacity) {
+			capacity = Math.max(MIN_CAPACITY, 2 * capacity);
+			groupValues = Arrays.copyOf(groupValues, capacity * rowCodes.length);
+			for (Accumulator accumulator : accumulators)
+				accumulator.grow(capacity);
+		}
+		groupCount++;
+	}
+
+	/**
+	 * Returns the groups as a new table, preceded by a header if the names of the source columns are specified.
+	 */
+	CSVTable result(IntFunction<Object> names, char delimiter) {
+		CSVTable table = new CSVTable().delimiter(delimiter);
+		int[] groupColumns = aggregation.groupColumns();
+		if (Objects.nonNull(names)) {
+			List<Object> header = new ArrayList<>();
+			for (int column : groupColumns)
+				header.add(name(names, column));
+			for (int aggregate = 0; aggregate < accumulators.length; aggregate++)
+				header.add(aggregation.function(aggregate).name(name(names, aggregation.column(aggregate))));
+			table.appendRow(header);
+		}
+		for (int group = 0; group < groupCount; group++) {
+			List<Object> row = new ArrayList<>(groupColumns.length + accumulators.length);
+			for (int i = 0; i < groupColumns.length; i++)
+				row.add(groupCodes[i].values.get(groupValues[group * groupColumns.length + i]));
+			for (Accumulator accumulator : accumulators)
+				row.add(accumulator.result(group));
+			table.appendRow(row);
+		}
+		return table;
+	}
+
+	private static Object name(IntFunction<Object> names, int column) {
+		Object name = column < 0 ? null : names.apply(column);
+		return Objects.isNull(name) ? Integer.toString(column) : name;
+	}
+
+	private static Accumulator accumulator(Aggregation.Function function) {
+		switch (function) {
+			case COUNT:
+				return new Count();
+			case COUNT_DISTINCT:
+				return new CountDistinct();
+			case MIN:
+				return new Extreme(1);
+			case MAX:
+				return new Extreme(-1);
+			case AVG:
+				return new Sum(true);
+			default:
+				return new Sum(false);
+		}
+	}
+
+	/**
+	 * Returns the value as a number if it is a number or a string holding one, or {@code null} otherwise. Integral
+	 * strings are read as {@link Long} and other numeric strings as {@link Double}.
+	 */
+	static Object number(Object value) {
+		if (value instanceof Number)
+			return value;
+		if (!(value instanceof String))
+			return null;
+		Object number = ColumnType.LONG.parse((String) value);
+		return Objects.nonNull(number) ? number : ColumnType.DOUBLE.parse((String) value);
+	}
+
+	/**
+	 * Dense integer codes of the distinct values of a column, {@code null} included.
+	 */
+	private static class Codes {
+
+		private final CSVLongMap integral;
+		private final Map<Object, Integer> others;
+		private final List<Object> values;
+		private int nullCode;
+		private CSVColumn.DictionaryColumn dictionary;
+		private int[] dictionaryCodes;
+
+		Codes() {
+			this.integral = new CSVLongMap();
+			this.others = new HashMap<>();
+			this.values = new ArrayList<>();
+			this.nullCode = -1;
+			this.dictionary = null;
+			this.dictionaryCodes = new int[0];
+		}
+
+		int code(Object value) {
+			if (Objects.isNull(value)) {
+				if (nullCode < 0)
+					nullCode = add(null);
+				return nullCode;
+			}
+			if (CSVIndex.isIntegral(value)) {
+				long key = ((Number) value).longValue();
+				Object code = integral.get(key);
+				if (Objects.isNull(code)) {
+					code = add(value);
+					integral.put(key, code);
+				}
+				return (Integer) code;
+			}
+			Integer code = others.get(value);
+			if (Objects.isNull(code)) {
+				code = add(value);
+				others.put(value, code);
+			}
+			return code;
+		}
+
+		/**
+		 * Returns the code of a value of a dictionary-encoded column, translating its dictionary code.
+		 */
+		int code(CSVColumn.DictionaryColumn column, int row) {
+			int dictionaryCode = column.code(row);
+			if (dictionaryCode < 0)
+				return code(null);
+			if (column != dictionary) {
+				dictionary = column;
+				dictionaryCodes = new int[0];
+			}
+			if (dictionaryCode >= dictionaryCodes.length) {
+				int length = dictionaryCodes.length;
+				dictionaryCodes = Arrays.copyOf(dictionaryCodes, Math.max(dictionaryCode + 1, column.dictionarySize()));
+				Arrays.fill(dictionaryCodes, length, dictionaryCodes.length, -1);
+			}
+			int code = dictionaryCodes[dictionaryCode];
+			if (code < 0)
+				code = dictionaryCodes[dictionaryCode] = code(column.get(row));
+			return code;
+		}
+
+		private int add(Object value) {
+			values.add(value);
+			return values.size() - 1;
+		}
+
+	}
+
+	private static abstract class Accumulator {
+
+		abstract void grow(int capacity);
+
+		abstract void add(int group, Object value);
+
+		abstract Object result(int group);
+
+	}
+
+	private static class Count extends Accumulator {
+
+		private long[] counts = new long[0];
+
+		@Override
+		void grow(int capacity) {
+			counts = Arrays.copyOf(counts, capacity);
+		}
+
+		@Override
+		void add(int group, Object value) {
+			counts[group]++;
+		}
+
+		@Override
+		Object result(int group) {
+			return counts[group];
+		}
+
+	}
+
+	private static class CountDistinct extends Accumulator {
+
+		private final Codes codes = new Codes();
+		private final CSVLongMap seen = new CSVLongMap();
+		private long[] counts = new long[0];
+
+		@Override
+		void grow(int capacity) {
+			counts = Arrays.copyOf(counts, capacity);
+		}
+
+		@Override
+		void add(int group, Object value) {
+			if (Objects.isNull(value))
+				return;
+			long pair = (long) group << 32 | codes.code(value) & 0xFFFFFFFFL;
+			if (Objects.isNull(seen.put(pair, Boolean.TRUE)))
+				counts[group]++;
+		}
+
+		@Override
+		Object result(int group) {
+			return counts[group];
+		}
+
+	}
+
+	private static class Sum extends Accumulator {
+
+		private final boolean average;
+		private long[] counts = new long[0];
+		private long[] integralSums = new long[0];
+		private double[] sums = new double[0];
+		private boolean[] floating = new boolean[0];
+
+		Sum(boolean average) {
+			this.average = average;
+		}
+
+		@Override
+		void grow(int capacity) {
+			counts = Arrays.copyOf(counts, capacity);
+			integralSums = Arrays.copyOf(integralSums, capacity);
+			sums = Arrays.copyOf(sums, capacity);
+			floating = Arrays.copyOf(floating, capacity);
+		}
+
+		@Override
+		void add(int group, Object value) {
+			Object number = number(value);
+			if (Objects.isNull(number))
+				return;
+			counts[group]++;
+			if (CSVIndex.isIntegral(number))
+				integralSums[group] += ((Number) number).longValue();
+			else {
+				sums[group] += ((Number) number).doubleValue();
+				floating[group] = true;
+			}
+		}
+
+		@Override
+		Object result(int group) {
+			if (counts[group] == 0L)
+				return null;
+			if (average)
+				return (integralSums[group] + sums[group]) / counts[group];
+			return floating[group] ? (Object) (integralSums[group] + sums[group]) : (Object) integralSums[group];
+		}
+
+	}
+
+	private static class Extreme extends Accumulator {
+
+		private final int sign;
+		private Object[] values = new Object[0];
+
+		/**
+		 * Creates an accumulator of the smallest values if the sign is positive, or of the largest values otherwise.
+		 */
+		Extreme(int sign) {
+			this.sign = sign;
+		}
+
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void add(int group, Object value) {
+			if (Objects.isNull(value))
+				return;
+			Object number = number(value);
+			Object comparable = Objects.nonNull(number) ? number : value;
+			if (Objects.isNull(values[group]) || sign * CSVSortedIndex.compare(comparable, values[group]) < 0)
+				values[group] = comparable;
+		}
+
+		@Override
+		Object result(int group) {
+			return values[group];
+		}
+
+	}
+
+}
@@ -0,0 +1,318 @@
+package com.kaba4cow.csvtable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Column of a table in column-oriented storage. Values of a single boxed type are kept in a primitive array, strings
+ * share one character array, and nulls are tracked in a bitmap.
+ */
+abstract class CSVColumn {
+
+	private final long[] nulls;
+
+	CSVColumn(int size) {
+		this.nulls = new long[(size + 63) >>> 6];
+	}
+
+	static CSVColumn of(List<CSVRow> rows, int column, int dictionaryThreshold) {
+		Class<?> type = null;
+		long length = 0L;
+		Map<String, Integer> dictionary = new HashMap<>();
+		int dictionaryLimit = Math.min(dictionaryThreshold, rows.size() / 2);
+		for (CSVRow row : rows) {
+			Object value = column < row.columns() ? row.get(column) : null;
+			if (Objects.isNull(value))
+				continue;
+			if (Objects.isNull(type))
+				type = value.getClass();
+			else if (type != value.getClass()) {
+				type = Object.class;
+				break;
+			}
+			if (type == String.class) {
+				length += ((String) value).length();
+				if (dictionary.size() <= dictionaryLimit)
+					dictionary.putIfAbsent((String) value, dictionary.size());
+			}
+		}
+		CSVColumn result;
+		if (type == Integer.class)
+			result = new IntColumn(rows.size());
+		else if (type == Long.class)
+			result = new LongColumn(rows.size());
+		else if (type == Double.class)
+			result = new DoubleColumn(rows.size());
+		else if (type == Boolean.class)
+			result = new BooleanColumn(rows.size());
+		else if (type == String.class && dictionary.size() <= dictionaryLimit)
+			result = new DictionaryColumn(rows.size());
+		else if (type == String.class && length <= Integer.MAX_VALUE)
+			result = new StringColumn(rows.size(), (int) length);
+		else
+			result = new ObjectColumn(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			CSVRow row = rows.get(i);
+			result.set(i, column < row.columns() ? row.get(column) : null);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the value at the specified row, boxed into the type it was stored with.
+	 */
+	Object get(int row) {
+		return isNull(row) ? null : value(row);
+	}
+
+	/**
+	 * Stores the value at the specified row.
+	 *
+	 * @return {@code false} if the value does not fit the type of this column
+	 */
+	boolean set(int row, Object value) {
+		if (Objects.isNull(value)) {
+			nulls[row >>> 6] |= 1L << row;
+			return true;
+		}
+		if (!store(row, value))
+			return false;
+		nulls[row >>> 6] &= ~(1L << row);
+		return true;
+	}
+
+	boolean isNull(int row) {
+		return (nulls[row >>> 6] & 1L << row) != 0L;
+	}
+
+	/**
+	 * Returns whether the values of this column are encoded as codes into a dictionary of distinct values, in which case
+	 * the column is a {@link DictionaryColumn}.
+	 */
+	boolean isEncoded() {
+		return false;
+	}
+
+	abstract Object value(int row);
+
+	abstract boolean store(int row, Object value);
+
+	private static class IntColumn extends CSVColumn {
+
+		private final int[] values;
+
+		IntColumn(int size) {
+			super(size);
+			this.values = new int[size];
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		boolean store(int row, Object value) {
+			if (!(value instanceof Integer))
+				return false;
+			values[row] = (Integer) value;
+			return true;
+		}
+
+	}
+
+	private static class LongColumn extends CSVColumn {
+
+		private final long[] values;
+
+		LongColumn(int size) {
+			super(size);
+			this.values = new long[size];
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		boolean store(int row, Object value) {
+			if (!(value instanceof Long))
+				return false;
+			values[row] = (Long) value;
+			return true;
+		}
+
+	}
+
+	private static class DoubleColumn extends CSVColumn {
+
+		private final double[] values;
+
+		DoubleColumn(int size) {
+			super(size);
+			this.values = new double[size];
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		boolean store(int row, Object value) {
+			if (!(value instanceof Double))
+				return false;
+			values[row] = (Double) value;
+			return true;
+		}
+
+	}
+
+	private static class BooleanColumn extends CSVColumn {
+
+		private final boolean[] values;
+
+		BooleanColumn(int size) {
+			super(size);
+			this.values = new boolean[size];
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		boolean store(int row, Object value) {
+			if (!(value instanceof Boolean))
+				return false;
+			values[row] = (Boolean) value;
+			return true;
+		}
+
+	}
+
+	private static class StringColumn extends CSVColumn {
+
+		private final char[] chars;
+		private final int[] offsets;
+		private int length;
+		private int filled;
+
+		StringColumn(int size, int length) {
+			super(size);
+			this.chars = new char[length];
+			this.offsets = new int[size + 1];
+			this.length = 0;
+			this.filled = 0;
+		}
+
+		@Override
+		Object value(int row) {
+			return new String(chars, offsets[row], offsets[row + 1] - offsets[row]);
+		}
+
+		@Override
+		boolean set(int row, Object value) {
+			if (row < filled)
+				return Objects.isNull(value) && super.set(row, null);
+			if (!super.set(row, value))
+				return false;
+			offsets[row + 1] = length;
+			filled++;
+			return true;
+		}
+
+		@Override
+		boolean store(int row, Object value) {
+			if (!(value instanceof String))
+				return false;
+			String string = (String) value;
+			string.getChars(0, string.length(), chars, length);
+			length += string.length();
+			return true;
+		}
+
+	}
+
+	static class DictionaryColumn extends CSVColumn {
+
+		private final int[] codes;
+		private final List<String> values;
+		private final Map<String, Integer> dictionary;
+
+		DictionaryColumn(int size) {
+			super(size);
+			this.codes = new int[size];
+			this.values = new ArrayList<>();
+			this.dictionary = new HashMap<>();
+		}
+
+		@Override
+		Object value(int row) {
+			return values.get(codes[row]);
+		}
+
+		@Override
+		boolean store(int row, Object value) {
+			if (!(value instanceof String))
+				return false;
+			Integer code = dictionary.get(value);
+			if (Objects.isNull(code)) {
+				code = values.size();
+				values.add((String) value);
+				dictionary.put((String) value, code);
+			}
+			codes[row] = code;
+			return true;
+		}
+
+		@Override
+		boolean isEncoded() {
+			return true;
+		}
+
+		/**
+		 * Returns the dictionary code of the value at the specified row, or {@code -1} if the value is null. Equal values
+		 * share the same code.
+		 */
+		int code(int row) {
+			return isNull(row) ? -1 : codes[row];
+		}
+
+		/**
+		 * Returns the number of distinct values in the dictionary of this column.
+		 */
+		int dictionarySize() {
+			return values.size();
+		}
+
+	}
+
+	private static class ObjectColumn extends CSVColumn {
+
+		private final Object[] values;
+
+		ObjectColumn(int size) {
+			super(size);
+			this.values = new Object[size];
+		}
+
+		@Override
+		Object value(int row) {
+			return values[row];
+		}
+
+		@Override
+		boolean store(int row, Object value) {
+			values[row] = value;
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,396 @@
+package com.kaba4cow.csvtable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts CSV data that does not fit in memory. Rows are read in runs of bounded size, each run is sorted in memory and
+ * spilled to a temporary file, and the runs are merged into the target, several runs at a time if there are more of
+ * them than can be merged at once. Only one run and one row per merged run are held in memory at any time. Rows are
+ * ordered by their {@link SortKey keys} as by {@link CSVTable#sortBy(boolean, SortKey...)}: the sort is stable, and values
+ * that are {@code null} or do not match the type of their key are ordered last. When the source has a header, it stays
+ * the first row of the target.
+ */
+public class CSVExternalSort {
+
+	private static final int DEFAULT_RUN_SIZE = 1 << 17;
+	private static final int DEFAULT_MERGE_WIDTH = 64;
+
+	private final SortKey[] keys;
+	private final int[] slots;
+	private boolean header;
+	private char delimiter;
+	private Charset charset;
+	private int runSize;
+	private int mergeWidth;
+	private Path tempDirectory;
+
+	/**
+	 * Creates a {@code CSVExternalSort} sorting rows by the specified keys, in order of precedence. By default the first
+	 * row is a header, the delimiter is {@code ','} and files are UTF-8 encoded.
+	 *
+	 * @param keys the keys to sort by
+	 *
+	 * @throws IllegalArgumentException if the column of a key is less than 0
+	 */
+	public CSVExternalSort(SortKey... keys) {
+		this.keys = keys.clone();
+		this.slots = new int[keys.length];
+		for (int key = 0; key < keys.length; key++) {
+			if (keys[key].column() <= -1)
+				throw new IllegalArgumentException(String.format("Column %s must be greater than -1", keys[key].column()));
+			slots[key] = keys[key].column();
+		}
+		this.header = true;
+		this.delimiter = ',';
+		this.charset = StandardCharsets.UTF_8;
+		this.runSize = DEFAULT_RUN_SIZE;
+		this.mergeWidth = DEFAULT_MERGE_WIDTH;
+		this.tempDirectory = null;
+	}
+
+	/**
+	 * Sorts the rows of the source file into the target file.
+	 *
+	 * @param source the path of the file to sort
+	 * @param target the path of the sorted file
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVExternalSort sort(Path source, Path target) throws IOException {
+		try (Reader reader = Files.newBufferedReader(source, charset);
+				Writer writer = Files.newBufferedWriter(target, charset)) {
+			return sort(reader, writer);
+		}
+	}
+
+	/**
+	 * Sorts the rows read from the source into the target. Neither stream is closed.
+	 *
+	 * @param source the source of CSV data
+	 * @param target the destination of the sorted CSV data
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVExternalSort sort(Reader source, Writer target) throws IOException {
+		List<Path> files = new ArrayList<>();
+		try {
+			CSVReader reader = new CSVReader(source, delimiter);
+			CSVRow first = header ? reader.readRow() : null;
+			List<CSVRow> run = readRun(reader);
+			CSVWriter writer = new CSVWriter(target, delimiter);
+			if (Objects.nonNull(first))
+				writer.writeRow(first);
+			if (run.size() < runSize) {
+				writeRun(run, writer);
+				writer.flush();
+				return this;
+			}
+			List<Path> runs = new ArrayList<>();
+			for (; !run.isEmpty(); run = readRun(reader)) {
+				Path path = createTempFile(files);
+				try (CSVWriter runWriter = tempWriter(path)) {
+					writeRun(run, runWriter);
+				}
+				runs.add(path);
+			}
+			while (runs.size() > mergeWidth) {
+				List<Path> merged = new ArrayList<>();
+				for (int start = 0; start < runs.size(); start += mergeWidth) {
+					List<Path> group = runs.subList(start, Math.min(start + mergeWidth, runs.size()));
+					Path path = createTempFile(files);
+					try (CSVWriter runWriter = tempWriter(path)) {
+						merge(group, runWriter);
+					}
+					for (Path groupRun : group)
+						Files.delete(groupRun);
+					merged.add(path);
+				}
+				runs = merged;
+			}
+			merge(runs, writer);
+			writer.flush();
+			return this;
+		} finally {
+			for (Path file : files)
+				Files.deleteIfExists(file);
+		}
+	}
+
+	private List<CSVRow> readRun(CSVReader reader) throws IOException {
+		List<CSVRow> run = new ArrayList<>();
+		CSVRow row;
+		while (run.size() < runSize && Objects.nonNull(row = reader.readRow()))
+			run.add(row);
+		return run;
+	}
+
+	private void writeRun(List<CSVRow> run, CSVWriter writer) throws IOException {
+		for (int row : CSVSorter.sort(run, 0, slots, keys))
+			writer.writeRow(run.get(row));
+	}
+
+	private CSVWriter tempWriter(Path path) throws IOException {
+		return new CSVWriter(Files.newOutputStream(path), StandardCharsets.UTF_8, delimiter);
+	}
+
+	/**
+	 * Merges the sorted runs into the writer. Rows with equal keys are taken from the earlier run first, which keeps the
+	 * sort stable. Every run is closed when the merge ends, whether or not it fails.
+	 */
+	private void merge(List<Path> runs, CSVWriter writer) throws IOException {
+		PriorityQueue<RunCursor> queue = new PriorityQueue<>(runs.size());
+		try (RunCursors cursors = new RunCursors(runs.size())) {
+			for (int run = 0; run < runs.size(); run++) {
+				RunCursor cursor = cursors.open(runs.get(run), run);
+				if (cursor.next())
+					queue.add(cursor);
+				else
+					cursor.close();
+			}
+			RunCursor cursor;
+			while (Objects.nonNull(cursor = queue.poll())) {
+				writer.writeRow(cursor.row);
+				if (cursor.next())
+					queue.add(cursor);
+				else
+					cursor.close();
+			}
+		}
+	}
+
+	private Path createTempFile(List<Path> files) throws IOException {
+		Path path = Objects.isNull(tempDirectory) ? Files.createTempFile("csv-run-", ".csv")
+				: Files.createTempFile(tempDirectory, "csv-run-", ".csv");
+		files.add(path);
+		return path;
+	}
+
+	/**
+	 * Sets whether the first row of the source is a header, which is written first to the target and not sorted.
+	 *
+	 * @param header whether the first row is a header
+	 *
+	 * @return a reference to this object
+	 */
+	public CSVExternalSort header(boolean header) {
+		this.header = header;
+		return this;
+	}
+
+	/**
+	 * Returns whether the first row of the source is a header.
+	 *
+	 * @return whether the first row is a header
+	 */
+	public boolean header() {
+		return header;
+	}
+
+	/**
+	 * Sets the delimiter used for separating columns in the source, the target and the temporary files.
+	 *
+	 * @param delimiter the delimiter character
+	 *
+	 * @return a reference to this object
+	 */
+	public CSVExternalSort delimiter(char delimiter) {
+		this.delimiter = delimiter;
+		return this;
+	}
+
+	/**
+	 * Returns the delimiter used for separating columns.
+	 *
+	 * @return the delimiter character
+	 */
+	public char delimiter() {
+		return delimiter;
+	}
+
+	/**
+	 * Sets the charset of the source and target files. Temporary files are always UTF-8 encoded.
+	 *
+	 * @param charset the charset of the files
+	 *
+	 * @return a reference to this object
+	 */
+	public CSVExternalSort charset(Charset charset) {
+		this.charset = Objects.requireNonNull(charset);
+		return this;
+	}
+
+	/**
+	 * Returns the charset of the source and target files.
+	 *
+	 * @return the charset of the files
+	 */
+	public Charset charset() {
+		return charset;
+	}
+
+	/**
+	 * Sets the maximum number of rows sorted in memory at once. A source with fewer rows is sorted without temporary
+	 * files.
+	 *
+	 * @param runSize the maximum number of rows in a run
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the run size is less than 1
+	 */
+	public CSVExternalSort runSize(int runSize) {
+		if (runSize <= 0)
+			throw new IllegalArgumentException(String.format("Run size %s must be greater than 0", runSize));
+		this.runSize = runSize;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of rows sorted in memory at once.
+	 *
+	 * @return the maximum number of rows in a run
+	 */
+	public int runSize() {
+		return runSize;
+	}
+
+	/**
+	 * Sets the maximum number of runs merged at once, which bounds the number of temporary files open at the same time.
+	 *
+	 * @param mergeWidth the maximum number of runs merged at once
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the merge width is less than 2
+	 */
+	public CSVExternalSort mergeWidth(int mergeWidth) {
+		if (mergeWidth <= 1)
+			throw new IllegalArgumentException(String.format("Merge width %s must be greater than 1", mergeWidth));
+		this.mergeWidth = mergeWidth;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of runs merged at once.
+	 *
+	 * @return the maximum number of runs merged at once
+	 */
+	public int mergeWidth() {
+		return mergeWidth;
+	}
+
+	/**
+	 * Sets the directory of the temporary files.
+	 *
+	 * @param tempDirectory the directory of the temporary files, or {@code null} for the default temporary-file
+	 *                      directory
+	 *
+	 * @return a reference to this object
+	 */
+	public CSVExternalSort tempDirectory(Path tempDirectory) {
+		this.tempDirectory = tempDirectory;
+		return this;
+	}
+
+	/**
+	 * Returns the directory of the temporary files.
+	 *
+	 * @return the directory of the temporary files, or {@code null} for the default temporary-file directory
+	 */
+	public Path tempDirectory() {
+		return tempDirectory;
+	}
+
+	/**
+	 * The cursors opened by a merge. Closing closes all of them, including those that have already been closed, and
+	 * failures to close a cursor are suppressed by the first one so that the remaining cursors are still closed.
+	 */
+	private class RunCursors implements Closeable {
+
+		private final List<RunCursor> cursors;
+
+		RunCursors(int capacity) {
+			this.cursors = new ArrayList<>(capacity);
+		}
+
+		RunCursor open(Path path, int run) throws IOException {
+			RunCursor cursor = new RunCursor(path, run);
+			cursors.add(cursor);
+			return cursor;
+		}
+
+		@Override
+		public void close() throws IOException {
+			IOException failure = null;
+			for (RunCursor cursor : cursors)
+				try {
+					cursor.close();
+				} catch (IOException exception) {
+					if (Objects.isNull(failure))
+						failure = exception;
+					else
+						failure.addSuppressed(exception);
+				}
+			if (Objects.nonNull(failure))
+				throw failure;
+		}
+
+	}
+
+	private class RunCursor implements Comparable<RunCursor> {
+
+		private final CSVReader reader;
+		private final int run;
+		private final Object[] values;
+		private CSVRow row;
+
+		RunCursor(Path path, int run) throws IOException {
+			this.reader = new CSVReader(Files.newInputStream(path), StandardCharsets.UTF_8, delimiter);
+			this.run = run;
+			this.values = new Object[keys.length];
+		}
+
+		/**
+		 * Reads the next row of the run and converts its keys.
+		 */
+		boolean next() throws IOException {
+			row = reader.readRow();
+			if (Objects.isNull(row))
+				return false;
+			for (int key = 0; key < keys.length; key++)
+				values[key] = CSVSorter.key(row.value(slots[key]), keys[key].type());
+			return true;
+		}
+
+		void close() throws IOException {
+			reader.close();
+		}
+
+		@Override
+		public int compareTo(RunCursor other) {
+			for (int key = 0; key < keys.length; key++) {
+				int comparison = CSVSorter.compare(values[key], other.values[key], keys[key]);
+				if (comparison != 0)
+					return comparison;
+			}
+			return Integer.compare(run, other.run);
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.kaba4cow.csvtable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hash index mapping each value of a column to the rows holding it. Integral keys are stored unboxed in a
+ * {@link CSVLongMap}, other keys in a {@link HashMap}.
+ */
+class CSVHashIndex extends CSVIndex {
+
+	private static final int HASH_MAP_ENTRY_SIZE = 32;
+	private static final int LIST_SIZE = 24;
+
+	private final CSVLongMap integral;
+	private final Map<Object, Object> objects;
+	private int rowCount;
+	private int listCount;
+
+	CSVHashIndex(CSVTable table, int slot) {
+		super(table, slot);
+		this.integral = new CSVLongMap();
+		this.objects = new HashMap<>();
+		this.rowCount = 0;
+		this.listCount = 0;
+	}
+
+	@Override
+	public List<CSVRow> lookup(Object key) {
+		checkState();
+		Object entry = entry(key);
+		if (Objects.isNull(entry))
+			return Collections.emptyList();
+		else if (entry instanceof CSVRow)
+			return Collections.singletonList((CSVRow) entry);
+		else
+			return Collections.unmodifiableList(rows(entry));
+	}
+
+	@Override
+	public int keyCount() {
+		return integral.size() + objects.size();
+	}
+
+	@Override
+	public int rowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public long memoryUsage() {
+		long integralBytes = 2L * OBJECT_HEADER_SIZE + (long) integral.capacity() * (Long.BYTES + REFERENCE_SIZE);
+		long objectBytes = OBJECT_HEADER_SIZE + (long) Integer.highestOneBit(Math.max(1, objects.size() * 4 / 3)) * 2
+				* REFERENCE_SIZE + (long) objects.size() * HASH_MAP_ENTRY_SIZE;
+		long listed = rowCount - keyCount() + listCount;
+		long listBytes = (long) listCount * (LIST_SIZE + OBJECT_HEADER_SIZE) + listed * REFERENCE_SIZE;
+		return integralBytes + objectBytes + listBytes;
+	}
+
+	@Override
+	void add(Object key, CSVRow row) {
+		if (Objects.isNull(key))
+			return;
+		Object entry = entry(key);
+		if (Objects.isNull(entry))
+			put(key, row);
+		else if (entry instanceof CSVRow) {
+			List<CSVRow> rows = new ArrayList<>(2);
+			rows.add((CSVRow) entry);
+			rows.add(row);
+			put(key, rows);
+			listCount++;
+		} else
+			rows(entry).add(row);
+		rowCount++;
+	}
+
+	@Override
+	void remove(Object key, CSVRow row) {
+		if (Objects.isNull(key))
+			return;
+		Object entry = entry(key);
+		if (entry == row)
+			removeKey(key);
+		else if (Objects.isNull(entry) || entry instanceof CSVRow || !rows(entry).remove(row))
+			return;
+		else if (rows(entry).size() == 1) {
+			put(key, rows(entry).get(0));
+			listCount--;
+		}
+		rowCount--;
+	}
+
+	@Override
+	void clear() {
+		integral.clear();
+		objects.clear();
+		rowCount = 0;
+		listCount = 0;
+	}
+
+	private Object entry(Object key) {
+		return isIntegral(key) ? integral.get(((Number) key).longValue()) : objects.get(key);
+	}
+
+	private void put(Object key, Object entry) {
+		if (isIntegral(key))
+			integral.put(((Number) key).longValue(), entry);
+		else
+			objects.put(key, entry);
+	}
+
+	private void removeKey(Object key) {
+		if (isIntegral(key))
+			integral.remove(((Number) key).longValue());
+		else
+			objects.remove(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<CSVRow> rows(Object entry) {
+		return (List<CSVRow>) entry;
+	}
+
+}
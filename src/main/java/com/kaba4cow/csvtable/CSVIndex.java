@@ -0,0 +1,120 @@
+package com.kaba4cow.csvtable;
+
+import java.util.List;
+
+/**
+ * Index on a column of a {@link CSVTable}, mapping the values of the column to the rows holding them. The index is kept
+ * up to date by the table as rows are added, removed and modified, and follows its column when columns are inserted,
+ * removed or reordered. Integral keys ({@link Integer}, {@link Long}, {@link Short} and {@link Byte}) are matched by
+ * value regardless of their type. Null values are not indexed.
+ *
+ * @see CSVTable#createIndex(int)
+ * @see CSVTable#createSortedIndex(int)
+ */
+public abstract class CSVIndex {
+
+	static final int OBJECT_HEADER_SIZE = 16;
+	static final int REFERENCE_SIZE = 4;
+
+	private final CSVTable table;
+	private int slot;
+
+	CSVIndex(CSVTable table, int slot) {
+		this.table = table;
+		this.slot = slot;
+	}
+
+	/**
+	 * Returns the rows holding the specified value in the indexed column.
+	 *
+	 * @param key the value to look up
+	 *
+	 * @return an unmodifiable list of the matching rows, empty if there are none
+	 *
+	 * @throws IllegalStateException if the index has been dropped
+	 */
+	public abstract List<CSVRow> lookup(Object key);
+
+	/**
+	 * Returns the number of distinct values in the index.
+	 *
+	 * @return the number of keys
+	 */
+	public abstract int keyCount();
+
+	/**
+	 * Returns the number of rows in the index, i.e. the rows whose value in the indexed column is not {@code null}.
+	 *
+	 * @return the number of indexed rows
+	 */
+	public abstract int rowCount();
+
+	/**
+	 * Returns an estimate of the memory used by the index structures, assuming compressed object references. The
+	 * estimate does not cover the keys and rows themselves, which are shared with the table.
+	 *
+	 * @return the estimated number of bytes
+	 */
+	public abstract long memoryUsage();
+
+	/**
+	 * Returns the current index of the indexed column.
+	 *
+	 * @return the index of the column
+	 *
+	 * @throws IllegalStateException if the index has been dropped
+	 */
+	public int column() {
+		checkState();
+		return table.column(slot);
+	}
+
+	/**
+	 * Returns the table that this index belongs to.
+	 *
+	 * @return the {@link CSVTable} of the index
+	 */
+	public CSVTable table() {
+		return table;
+	}
+
+	/**
+	 * Indexes the rows of a new index.
+	 */
+	void build(List<CSVRow> rows) {
+		for (CSVRow row : rows)
+			add(row.value(slot), row);
+	}
+
+	abstract void add(Object key, CSVRow row);
+
+	abstract void remove(Object key, CSVRow row);
+
+	abstract void clear();
+
+	int slot() {
+		return slot;
+	}
+
+	void slot(int slot) {
+		this.slot = slot;
+	}
+
+	/**
+	 * Detaches the index from its column, which has been removed from the table.
+	 */
+	void drop() {
+		clear();
+		slot = -1;
+	}
+
+	void checkState() {
+		if (slot < 0)
+			throw new IllegalStateException("Index has been dropped");
+	}
+
+	static boolean isIntegral(Object key) {
+		return key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte;
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.kaba4cow.csvtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Joins the rows of two tables on key columns with a hash join. The rows of the smaller side are chained by key in a hash
+ * table, keyed by primitive {@code long} values for a single integral key, and the rows of the other side probe it,
+ * concurrently on the common {@link ForkJoinPool} when there are many of them. Whichever side is built, rows of the
+ * result follow the order of the left rows, and the matches of a left row follow the order of the right rows. Rows with
+ * a {@code null} key never match.
+ */
+class CSVJoin {
+
+	private static final int PARALLEL_PROBE_THRESHOLD = 1 << 13;
+	private static final int NO_MATCH = -1;
+
+	private final CSVLongMap integralHeads;
+	private final Map<Object, Integer> heads;
+	private final int[] next;
+
+	/**
+	 * Chains the rows by the values of the key slots.
+	 */
+	private CSVJoin(List<CSVRow> rows, int[] slots) {
+		this.integralHeads = new CSVLongMap();
+		this.heads = new HashMap<>();
+		this.next = new int[rows.size()];
+		for (int row = rows.size() - 1; row >= 0; row--) {
+			Object key = key(rows.get(row), slots);
+			if (Objects.isNull(key))
+				continue;
+			Object head = CSVIndex.isIntegral(key) ? integralHeads.put(((Number) key).longValue(), row) : heads.put(key, row);
+			next[row] = Objects.isNull(head) ? NO_MATCH : (Integer) head;
+		}
+	}
+
+	/**
+	 * Returns the first of the chained rows matching the key of the row, or {@link #NO_MATCH}.
+	 */
+	private int probe(CSVRow row, int[] probeSlots) {
+		Object key = key(row, probeSlots);
+		Object head;
+		if (Objects.isNull(key))
+			return NO_MATCH;
+		else if (CSVIndex.isIntegral(key))
+			head = integralHeads.get(((Number) key).longValue());
+		else
+			head = heads.get(key);
+		return Objects.isNull(head) ? NO_MATCH : (Integer) head;
+	}
+
+	/**
+	 * Returns the key of the row: the value of a single key slot, or a list of the values of several key slots with
+	 * integral values widened to {@link Long}. A key holding a {@code null} value is {@code null}.
+	 */
+	private static Object key(CSVRow row, int[] slots) {
+		if (slots.length == 1)
+			return row.value(slots[0]);
+		List<Object> key = new ArrayList<>(slots.length);
+		for (int slot : slots) {
+			Object value = row.value(slot);
+			if (Objects.isNull(value))
+				return null;
+			key.add(CSVIndex.isIntegral(value) ? (Object) ((Number) value).longValue() : value);
+		}
+		return key;
+	}
+
+	/**
+	 * Joins the left rows with the right rows into a table, preceded by a concatenation of the headers if both are
+	 * specified.
+	 */
+	static CSVTable join(List<CSVRow> left, int[] leftSlots, int leftWidth, CSVRow leftHeader, List<CSVRow> right,
+			int[] rightSlots, int rightWidth, CSVRow rightHeader, JoinType type, char delimiter) {
+		int[] starts;
+		int[] matches;
+		if (right.size() <= left.size()) {
+			CSVJoin build = new CSVJoin(right, rightSlots);
+			int[] probes = probeAll(build, left, leftSlots);
+			starts = new int[left.size() + 1];
+			for (int row = 0; row < left.size(); row++)
+				for (int match = probes[row]; match != NO_MATCH; match = build.next[match])
+					starts[row + 1]++;
+			prefixSums(starts);
+			matches = new int[starts[left.size()]];
+			for (int row = 0, position = 0; row < left.size(); row++)
+				for (int match = probes[row]; match != NO_MATCH; match = build.next[match])
+					matches[position++] = match;
+		} else {
+			CSVJoin build = new CSVJoin(left, leftSlots);
+			int[] probes = probeAll(build, right, rightSlots);
+			starts = new int[left.size() + 1];
+			for (int row = 0; row < right.size(); row++)
+				for (int match = probes[row]; match != NO_MATCH; match = build.next[match])
+					starts[match + 1]++;
+			prefixSums(starts);
+			matches = new int[starts[left.size()]];
+			int[] positions = Arrays.copyOf(starts, left.size());
+			for (int row = 0; row < right.size(); row++)
+				for (int match = probes[row]; match != NO_MATCH; match = build.next[match])
+					matches[positions[match]++] = row;
+		}
+		CSVTable table = new CSVTable().delimiter(delimiter);
+		if (Objects.nonNull(leftHeader) && Objects.nonNull(rightHeader))
+			table.appendRow(type == JoinType.ANTI ? concat(leftHeader, leftWidth, null, 0)
+					: concat(leftHeader, leftWidth, rightHeader, rightWidth));
+		for (int row = 0; row < left.size(); row++) {
+			boolean matched = starts[row] < starts[row + 1];
+			if (type == JoinType.ANTI) {
+				if (!matched)
+					table.appendRow(concat(left.get(row), leftWidth, null, 0));
+				continue;
+			}
+			for (int match = starts[row]; match < starts[row + 1]; match++)
+				table.appendRow(concat(left.get(row), leftWidth, right.get(matches[match]), rightWidth));
+			if (!matched && type == JoinType.LEFT)
+				table.appendRow(concat(left.get(row), leftWidth, null, rightWidth));
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the first match of every probing row, probing in parallel when there are enough rows.
+	 */
+	private static int[] probeAll(CSVJoin build, List<CSVRow> probe, int[] probeSlots) {
+		int[] probes = new int[probe.size()];
+		if (probe.size() < PARALLEL_PROBE_THRESHOLD) {
+			for (int row = 0; row < probe.size(); row++)
+				probes[row] = build.probe(probe.get(row), probeSlots);
+			return probes;
+		}
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, probe.size() / PARALLEL_PROBE_THRESHOLD));
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int start = (int) ((long) probe.size() * chunk / chunks);
+			int end = (int) ((long) probe.size() * (chunk + 1) / chunks);
+			tasks.add(pool.submit(() -> {
+				for (int row = start; row < end; row++)
+					probes[row] = build.probe(probe.get(row), probeSlots);
+			}));
+		}
+		for (ForkJoinTask<?> task : tasks)
+			task.join();
+		return probes;
+	}
+
+	private static void prefixSums(int[] counts) {
+		for (int i = 1; i < counts.length; i++)
+			counts[i] += counts[i - 1];
+	}
+
+	/**
+	 * Returns the values of the left row followed by the values of the right row, or by {@code null} values if there is
+	 * no right row.
+	 */
+	private static List<Object> concat(CSVRow left, int leftWidth, CSVRow right, int rightWidth) {
+		List<Object> columns = new ArrayList<>(leftWidth + rightWidth);
+		for (int column = 0; column < leftWidth; column++)
+			columns.add(column < left.columns() ? left.get(column) : null);
+		for (int column = 0; column < rightWidth; column++)
+			columns.add(Objects.nonNull(right) && column < right.columns() ? right.get(column) : null);
+		return columns;
+	}
+
+}
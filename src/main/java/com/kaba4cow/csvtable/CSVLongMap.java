@@ -0,0 +1,106 @@
+package com.kaba4cow.csvtable;
+
+import java.util.Objects;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to non-null values. Keys are kept unboxed in a single array
+ * probed linearly, and removals shift the following entries back instead of leaving tombstones.
+ */
+class CSVLongMap {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	private int size;
+
+	CSVLongMap() {
+		allocate(MIN_CAPACITY);
+	}
+
+	Object get(long key) {
+		for (int i = index(key); Objects.nonNull(values[i]); i = (i + 1) & mask)
+			if (keys[i] == key)
+				return values[i];
+		return null;
+	}
+
+	/**
+	 * Associates the value with the key.
+	 *
+	 * @return the value previously associated with the key, or {@code null} if there was none
+	 */
+	Object put(long key, Object value) {
+		int i = index(key);
+		for (; Objects.nonNull(values[i]); i = (i + 1) & mask)
+			if (keys[i] == key) {
+				Object previous = values[i];
+				values[i] = value;
+				return previous;
+			}
+		keys[i] = key;
+		values[i] = value;
+		if (++size > values.length / 2)
+			rehash(values.length * 2);
+		return null;
+	}
+
+	/**
+	 * Removes the key.
+	 *
+	 * @return the value that was associated with the key, or {@code null} if there was none
+	 */
+	Object remove(long key) {
+		int hole = index(key);
+		for (; Objects.nonNull(values[hole]); hole = (hole + 1) & mask)
+			if (keys[hole] == key)
+				break;
+		Object previous = values[hole];
+		if (Objects.isNull(previous))
+			return null;
+		for (int i = (hole + 1) & mask; Objects.nonNull(values[i]); i = (i + 1) & mask)
+			if (((i - index(keys[i])) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = values[i];
+				hole = i;
+			}
+		values[hole] = null;
+		size--;
+		return previous;
+	}
+
+	void clear() {
+		allocate(MIN_CAPACITY);
+	}
+
+	int size() {
+		return size;
+	}
+
+	int capacity() {
+		return values.length;
+	}
+
+	private int index(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ hash >>> 32) & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldValues.length; i++)
+			if (Objects.nonNull(oldValues[i]))
+				put(oldKeys[i], oldValues[i]);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.kaba4cow.csvtable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Reads characters straight from a memory-mapped byte range of a file. The range is mapped in regions of at most
+ * {@link Integer#MAX_VALUE} bytes, so files larger than a single mapping are supported. Latin-1 input is widened byte by
+ * byte, any other charset is decoded without an intermediate copy.
+ */
+class CSVMappedReader extends Reader {
+
+	private static final long MIN_REGION_SIZE = 16L;
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private final FileChannel channel;
+	private final long end;
+	private final long regionSize;
+	private final CharsetDecoder decoder;
+	private long regionStart;
+	private MappedByteBuffer region;
+	private CharBuffer output;
+	private final CharBuffer pending;
+	private boolean flushed;
+
+	CSVMappedReader(FileChannel channel, Charset charset, long start, long end) {
+		this(channel, charset, start, end, Integer.MAX_VALUE);
+	}
+
+	CSVMappedReader(FileChannel channel, Charset charset, long start, long end, long regionSize) {
+		this.channel = channel;
+		this.end = end;
+		this.regionSize = regionSize;
+		this.decoder = StandardCharsets.ISO_8859_1.equals(charset) ? null
+				: charset.newDecoder().onMalformedInput(CodingErrorAction.REPORT)
+						.onUnmappableCharacter(CodingErrorAction.REPORT);
+		this.regionStart = start;
+		this.region = null;
+		this.output = null;
+		this.pending = (CharBuffer) CharBuffer.allocate(2).flip();
+		this.flushed = false;
+	}
+
+	@Override
+	public int read(char[] buffer, int offset, int length) throws IOException {
+		if (length == 0)
+			return 0;
+		if (pending.hasRemaining())
+			return drain(buffer, offset, length);
+		if (flushed)
+			return -1;
+		if (Objects.isNull(region) && !map())
+			return finish(buffer, offset, length);
+		if (Objects.isNull(decoder)) {
+			if (!region.hasRemaining() && !remap())
+				return -1;
+			int count = Math.min(length, region.remaining());
+			for (int i = 0; i < count; i++)
+				buffer[offset + i] = (char) (region.get() & 0xFF);
+			return count;
+		}
+		CharBuffer target = wrap(buffer, offset, length);
+		while (true) {
+			CoderResult result = decoder.decode(region, target, false);
+			if (result.isError())
+				result.throwException();
+			if (target.position() > offset)
+				return target.position() - offset;
+			if (result.isOverflow())
+				return decodePending(region, false, buffer, offset, length);
+			if (!remap())
+				return finish(buffer, offset, length);
+		}
+	}
+
+	private int finish(char[] buffer, int offset, int length) throws IOException {
+		if (Objects.isNull(decoder))
+			return -1;
+		CharBuffer target = wrap(buffer, offset, length);
+		ByteBuffer input = Objects.isNull(region) ? EMPTY : region;
+		CoderResult result = decoder.decode(input, target, true);
+		if (result.isError())
+			result.throwException();
+		if (result.isOverflow() && target.position() == offset)
+			return decodePending(input, true, buffer, offset, length);
+		if (!result.isOverflow()) {
+			decoder.flush(target);
+			flushed = true;
+		}
+		int count = target.position() - offset;
+		return count > 0 ? count : -1;
+	}
+
+	/**
+	 * Decodes the next character into the pending characters when the buffer is too short to hold it, as a surrogate pair
+	 * does not fit in a single char, and hands over as many of them as fit.
+	 */
+	private int decodePending(ByteBuffer input, boolean endOfInput, char[] buffer, int offset, int length)
+			throws IOException {
+		pending.clear();
+		CoderResult result = decoder.decode(input, pending, endOfInput);
+		if (result.isError())
+			result.throwException();
+		pending.flip();
+		return drain(buffer, offset, length);
+	}
+
+	private int drain(char[] buffer, int offset, int length) {
+		int count = Math.min(length, pending.remaining());
+		pending.get(buffer, offset, count);
+		return count;
+	}
+
+	private CharBuffer wrap(char[] buffer, int offset, int length) {
+		if (Objects.isNull(output) || output.array() != buffer)
+			output = CharBuffer.wrap(buffer);
+		output.limit(offset + length);
+		output.position(offset);
+		return output;
+	}
+
+	private boolean remap() throws IOException {
+		regionStart += region.position();
+		return map();
+	}
+
+	private boolean map() throws IOException {
+		long available = end - regionStart;
+		if (available <= 0 || Objects.nonNull(region) && available <= region.remaining())
+			return false;
+		long size = Math.min(available, Math.max(regionSize, MIN_REGION_SIZE));
+		region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, size);
+		return true;
+	}
+
+	@Override
+	public void close() {
+		region = null;
+	}
+
+}
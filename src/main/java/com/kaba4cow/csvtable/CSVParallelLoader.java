@@ -0,0 +1,166 @@
+package com.kaba4cow.csvtable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a CSV file by splitting it into byte ranges that are parsed concurrently. Record boundaries at the edges of the
+ * ranges are resolved from the parity of the quote characters preceding them, which is computed in parallel as well, so
+ * quoted line breaks never split a record.
+ */
+class CSVParallelLoader {
+
+	private static final long MIN_CHUNK_SIZE = 1L << 20;
+	private static final long SCAN_WINDOW_SIZE = 1L << 24;
+
+	private final FileChannel channel;
+	private final Charset charset;
+	private final char delimiter;
+	private final ForkJoinPool pool;
+	private final long size;
+
+	private CSVParallelLoader(FileChannel channel, Charset charset, char delimiter, ForkJoinPool pool) throws IOException {
+		this.channel = channel;
+		this.charset = charset;
+		this.delimiter = delimiter;
+		this.pool = pool;
+		this.size = channel.size();
+	}
+
+	static CSVTable load(FileChannel channel, Charset charset, char delimiter, ForkJoinPool pool) throws IOException {
+		return new CSVParallelLoader(channel, charset, delimiter, pool).load();
+	}
+
+	private CSVTable load() throws IOException {
+		int chunks = chunkCount();
+		CSVTable table = new CSVTable().delimiter(delimiter);
+		if (chunks <= 1 || !isAsciiCompatible())
+			try (CSVReader reader = reader(0L, size)) {
+				return reader.readTable(table);
+			}
+		long[] starts = new long[chunks + 1];
+		for (int i = 0; i <= chunks; i++)
+			starts[i] = size * i / chunks;
+		boolean[] parities = quoteParities(starts);
+		long[] boundaries = recordBoundaries(starts, parities);
+		List<Callable<List<CSVRow>>> tasks = new ArrayList<>();
+		for (int i = 0; i < chunks; i++) {
+			long start = boundaries[i];
+			long end = boundaries[i + 1];
+			tasks.add(() -> parse(start, end, table));
+		}
+		for (List<CSVRow> rows : invokeAll(tasks))
+			for (CSVRow row : rows)
+				table.appendRow(row);
+		return table;
+	}
+
+	private int chunkCount() {
+		long chunks = Math.min(pool.getParallelism() * 4L, size / MIN_CHUNK_SIZE);
+		return (int) Math.max(chunks, (size + Integer.MAX_VALUE - 1) / Integer.MAX_VALUE);
+	}
+
+	private boolean isAsciiCompatible() {
+		byte[] bytes = new String(new char[] { '\"', '\n', '\r', delimiter }).getBytes(charset);
+		return Arrays.equals(bytes, new byte[] { '\"', '\n', '\r', (byte) delimiter }) && delimiter < 0x80;
+	}
+
+	private boolean[] quoteParities(long[] starts) throws IOException {
+		List<Callable<Boolean>> tasks = new ArrayList<>();
+		for (int i = 0; i < starts.length - 1; i++) {
+			long start = starts[i];
+			long end = starts[i + 1];
+			tasks.add(() -> countQuotes(start, end) % 2 == 1);
+		}
+		List<Boolean> odd = invokeAll(tasks);
+		boolean[] parities = new boolean[starts.length];
+		for (int i = 1; i < parities.length; i++)
+			parities[i] = parities[i - 1] ^ odd.get(i - 1);
+		return parities;
+	}
+
+	private long countQuotes(long start, long end) throws IOException {
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+		long count = 0L;
+		while (buffer.hasRemaining())
+			if (buffer.get() == '\"')
+				count++;
+		return count;
+	}
+
+	private long[] recordBoundaries(long[] starts, boolean[] parities) throws IOException {
+		List<Callable<Long>> tasks = new ArrayList<>();
+		for (int i = 1; i < starts.length - 1; i++) {
+			long start = starts[i];
+			boolean quotes = parities[i];
+			tasks.add(() -> findRecordEnd(start, quotes));
+		}
+		List<Long> found = invokeAll(tasks);
+		long[] boundaries = new long[starts.length];
+		boundaries[starts.length - 1] = size;
+		for (int i = 1; i < starts.length - 1; i++)
+			boundaries[i] = Math.max(boundaries[i - 1], found.get(i - 1));
+		return boundaries;
+	}
+
+	private long findRecordEnd(long start, boolean quotes) throws IOException {
+		for (long window = start; window < size; window += SCAN_WINDOW_SIZE) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, window,
+					Math.min(SCAN_WINDOW_SIZE, size - window));
+			while (buffer.hasRemaining()) {
+				byte b = buffer.get();
+				if (b == '\"')
+					quotes = !quotes;
+				else if (!quotes && (b == '\n' || b == '\r'))
+					return window + buffer.position();
+			}
+		}
+		return size;
+	}
+
+	private List<CSVRow> parse(long start, long end, CSVTable owner) throws IOException {
+		List<CSVRow> rows = new ArrayList<>();
+		try (CSVReader reader = reader(start, end)) {
+			List<Object> columns;
+			while (Objects.nonNull(columns = reader.readColumns()))
+				rows.add(new CSVRow(owner, columns));
+		}
+		return rows;
+	}
+
+	private CSVReader reader(long start, long end) {
+		return new CSVReader(new CSVMappedReader(channel, charset, start, end), delimiter);
+	}
+
+	private <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException {
+		List<T> results = new ArrayList<>();
+		for (Future<T> future : pool.invokeAll(tasks))
+			try {
+				results.add(future.get());
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (ExecutionException exception) {
+				Throwable cause = exception.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				else if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				else
+					throw new IOException(cause);
+			}
+		return results;
+	}
+
+}
@@ -1,75 +1,244 @@
 package com.kaba4cow.csvtable;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
 
+/**
+ * Single-pass CSV tokenizer. Every character of the source is examined once by a state machine that tracks quoting and
+ * reports field boundaries and record ends.
+ */
 class CSVParser {
 
-	private CSVParser() {}
+	private final Reader reader;
+	private final char delimiter;
+	private final char[] buffer;
+	private final StringBuilder field;
+	private long base;
+	private int position;
+	private int limit;
+	private long start;
+	private long end;
+	private boolean quoted;
+	private int protectedLength;
+	private boolean endOfRecord;
+	private boolean endOfInput;
 
-	static List<String> parseSource(String source) {
-		List<String> list = new ArrayList<>();
-		StringBuilder builder = new StringBuilder();
+	CSVParser(Reader reader, char delimiter, int bufferSize) {
+		this.reader = reader;
+		this.delimiter = delimiter;
+		this.buffer = new char[bufferSize];
+		this.field = new StringBuilder();
+		this.base = 0L;
+		this.position = 0;
+		this.limit = 0;
+		this.endOfRecord = true;
+		this.endOfInput = false;
+	}
+
+	/**
+	 * Moves to the next non-blank record, skipping whatever is left of the current one.
+	 *
+	 * @return {@code false} if the end of the source has been reached
+	 */
+	boolean nextRecord() throws IOException {
+		while (!endOfRecord)
+			parseField(true);
+		while (true) {
+			if (position == limit && !fill()) {
+				endOfInput = true;
+				return false;
+			}
+			char c = buffer[position];
+			if (c == delimiter || c > ' ')
+				break;
+			position++;
+		}
+		endOfRecord = false;
+		return true;
+	}
+
+	/**
+	 * Parses the next field of the current record.
+	 *
+	 * @param skip whether the content of the field should be discarded
+	 *
+	 * @return {@code false} if the current record has no more fields
+	 */
+	boolean nextField(boolean skip) throws IOException {
+		if (endOfRecord)
+			return false;
+		parseField(skip);
+		return true;
+	}
+
+	/**
+	 * Skips the remaining fields of the current record.
+	 */
+	void skipRecord() throws IOException {
+		while (!endOfRecord)
+			parseField(true);
+	}
+
+	/**
+	 * Returns the value of the last parsed field: the unescaped content of a quoted field, the trimmed content of an
+	 * unquoted field, or {@code null} if an unquoted field is blank.
+	 */
+	String value() {
+		if (!quoted && field.length() == 0)
+			return null;
+		return field.toString();
+	}
+
+	/**
+	 * Returns the value of the last parsed field converted straight from its characters into the specified type, or its
+	 * {@link #value()} if it does not match that type.
+	 */
+	Object value(ColumnType type) {
+		if (!quoted && field.length() == 0)
+			return null;
+		Object value = type.parse(field);
+		return Objects.isNull(value) ? field.toString() : value;
+	}
+
+	/**
+	 * Returns the offset in the source of the first character of the last parsed field.
+	 */
+	long start() {
+		return start;
+	}
+
+	/**
+	 * Returns the offset in the source just past the last character of the last parsed field, excluding its terminator.
+	 */
+	long end() {
+		return end;
+	}
+
+	boolean endOfInput() {
+		return endOfInput;
+	}
+
+	private void parseField(boolean skip) throws IOException {
+		field.setLength(0);
+		quoted = false;
+		protectedLength = 0;
 		boolean quotes = false;
-		char[] chars = source.toCharArray();
-		for (int i = 0; i < chars.length; i++) {
-			char c = chars[i];
-			if (c == '\"') {
-				if (quotes && i < chars.length - 1 && chars[i + 1] == '\"') {
-					builder.append('\"');
-					i++;
-				} else
-					quotes = !quotes;
-			} else if (c == '\n' || c == '\r' && (i >= chars.length - 1 || chars[i + 1] != '\n')) {
-				if (!quotes) {
-					if (!builder.toString().trim().isEmpty())
-						list.add(builder.toString());
-					builder.setLength(0);
+		start = base + position;
+		while (true) {
+			if (position == limit && !fill()) {
+				end = base + position;
+				endOfRecord = true;
+				endOfInput = true;
+				break;
+			}
+			char c = buffer[position++];
+			if (quotes) {
+				if (c == '\"') {
+					if (peek() == '\"') {
+						position++;
+						append(c, skip);
+					} else {
+						quotes = false;
+						protectedLength = field.length();
+					}
 				} else
-					builder.append(c);
-			} else
-				builder.append(c);
+					append(c, skip);
+			} else if (c == delimiter) {
+				end = base + position - 1;
+				break;
+			} else if (c == '\n') {
+				end = base + position - 1;
+				endOfRecord = true;
+				break;
+			} else if (c == '\r') {
+				end = base + position - 1;
+				if (peek() == '\n')
+					position++;
+				endOfRecord = true;
+				break;
+			} else if (c == '\"') {
+				quotes = true;
+				quoted = true;
+			} else if (c > ' ' || field.length() > 0 || quoted)
+				append(c, skip);
 		}
-		if (builder.length() > 0 && !builder.toString().trim().isEmpty())
-			list.add(builder.toString());
-		return list;
+		int length = field.length();
+		while (length > protectedLength && field.charAt(length - 1) <= ' ')
+			length--;
+		field.setLength(length);
 	}
 
-	static List<Object> parseLine(String line, char delimiter) {
-		List<Object> list = new ArrayList<>();
-		StringBuilder builder = new StringBuilder();
+	/**
+	 * Decodes a field spanning the specified range of the source, producing the same value {@link #value()} would have
+	 * returned for it.
+	 */
+	static String decode(String source, int start, int end) {
+		boolean unquoted = true;
+		for (int i = start; i < end && unquoted; i++)
+			unquoted = source.charAt(i) != '\"';
+		if (unquoted) {
+			while (start < end && source.charAt(start) <= ' ')
+				start++;
+			while (end > start && source.charAt(end - 1) <= ' ')
+				end--;
+			return start == end ? null : source.substring(start, end);
+		}
+		StringBuilder field = new StringBuilder(end - start);
+		int protectedLength = 0;
 		boolean quotes = false;
-		char[] chars = line.toCharArray();
-		for (int i = 0; i < chars.length; i++) {
-			char c = chars[i];
+		boolean quoted = false;
+		for (int i = start; i < end; i++) {
+			char c = source.charAt(i);
 			if (quotes) {
 				if (c == '\"') {
-					if (i < chars.length - 1 && chars[i + 1] == '\"') {
-						builder.append('\"');
+					if (i + 1 < end && source.charAt(i + 1) == '\"') {
 						i++;
-					} else
+						field.append(c);
+					} else {
 						quotes = false;
+						protectedLength = field.length();
+					}
 				} else
-					builder.append(c);
-			} else if (c == '\"')
+					field.append(c);
+			} else if (c == '\"') {
 				quotes = true;
-			else if (c == delimiter) {
-				list.add(parseColumn(builder.toString()));
-				builder.setLength(0);
-			} else
-				builder.append(c);
+				quoted = true;
+			} else if (c > ' ' || field.length() > 0 || quoted)
+				field.append(c);
 		}
-		list.add(parseColumn(builder.toString()));
-		return list;
+		int length = field.length();
+		while (length > protectedLength && field.charAt(length - 1) <= ' ')
+			length--;
+		field.setLength(length);
+		return field.toString();
 	}
 
-	private static Object parseColumn(String column) {
-		if (column.startsWith("\"") && column.endsWith("\"") && column.length() >= 2)
-			return column.substring(1, column.length() - 1).replace("\"\"", "\"");
-		else if (column.trim().isEmpty())
-			return null;
-		else
-			return column.trim();
+	private void append(char c, boolean skip) {
+		if (!skip)
+			field.append(c);
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill())
+			return -1;
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		int count;
+		while ((count = reader.read(buffer, 0, buffer.length)) == 0)
+			continue;
+		if (count < 0)
+			return false;
+		base += limit;
+		position = 0;
+		limit = count;
+		return true;
+	}
+
+	void close() throws IOException {
+		reader.close();
 	}
 
 }
@@ -0,0 +1,537 @@
+package com.kaba4cow.csvtable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Reads CSV rows one at a time from a character stream. The input is consumed through a fixed-size buffer, so the memory
+ * used by the reader is bounded by the buffer and the row being read rather than by the size of the source.
+ */
+public class CSVReader implements Closeable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final CSVParser parser;
+	private final CSVTable table;
+	private int[] offsets;
+	private int[] projection;
+	private int selected;
+	private String[] selectedNames;
+	private final List<Predicate<Object>> filters;
+	private final Map<String, Predicate<Object>> namedFilters;
+	private boolean header;
+	private boolean started;
+	private CSVSchema schema;
+	private int sampleRows;
+	private final Deque<List<Object>> sample;
+	private List<Object> pendingHeader;
+
+	/**
+	 * Creates a {@code CSVReader} reading from the provided reader using a default delimiter {@code ','}.
+	 *
+	 * @param reader the source of CSV data
+	 */
+	public CSVReader(Reader reader) {
+		this(reader, ',');
+	}
+
+	/**
+	 * Creates a {@code CSVReader} reading from the provided reader using the specified delimiter.
+	 *
+	 * @param reader    the source of CSV data
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 */
+	public CSVReader(Reader reader, char delimiter) {
+		this(reader, delimiter, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a {@code CSVReader} reading from the provided reader using the specified delimiter and buffer size.
+	 *
+	 * @param reader     the source of CSV data
+	 * @param delimiter  the delimiter used for separating columns in the CSV
+	 * @param bufferSize the size of the character buffer
+	 *
+	 * @throws IllegalArgumentException if the buffer size is less than 1
+	 */
+	public CSVReader(Reader reader, char delimiter, int bufferSize) {
+		if (bufferSize <= 0)
+			throw new IllegalArgumentException(String.format("Buffer size %s must be greater than 0", bufferSize));
+		this.parser = new CSVParser(Objects.requireNonNull(reader), delimiter, bufferSize);
+		this.table = new CSVTable().delimiter(delimiter);
+		this.offsets = new int[16];
+		this.projection = null;
+		this.selected = 0;
+		this.selectedNames = null;
+		this.filters = new ArrayList<>();
+		this.namedFilters = new LinkedHashMap<>();
+		this.header = false;
+		this.started = false;
+		this.schema = null;
+		this.sampleRows = 0;
+		this.sample = new ArrayDeque<>();
+		this.pendingHeader = null;
+	}
+
+	/**
+	 * Creates a {@code CSVReader} reading from the provided stream using the specified charset and delimiter.
+	 *
+	 * @param stream    the source of CSV data
+	 * @param charset   the charset used to decode the stream
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 */
+	public CSVReader(InputStream stream, Charset charset, char delimiter) {
+		this(new InputStreamReader(stream, charset), delimiter);
+	}
+
+	/**
+	 * Sets whether the first row of the source is a header. The header is never filtered out and is required to refer to
+	 * columns by name.
+	 *
+	 * @param header whether the first row is a header
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalStateException if the first row has already been read
+	 */
+	public CSVReader header(boolean header) {
+		if (started)
+			throw new IllegalStateException("Header has already been read");
+		this.header = header;
+		return this;
+	}
+
+	/**
+	 * Restricts the subsequent rows to the specified columns, in the specified order. Fields of columns that are not
+	 * selected are skipped by the tokenizer without being decoded.
+	 *
+	 * @param columnIndexes the indexes of the columns to read
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if a column index is negative or selected more than once
+	 */
+	public CSVReader select(int... columnIndexes) {
+		int length = 0;
+		for (int column : columnIndexes) {
+			if (column <= -1)
+				throw new IllegalArgumentException(String.format("Column %s must be greater than -1", column));
+			length = Math.max(length, column + 1);
+		}
+		int[] projection = new int[length];
+		Arrays.fill(projection, -1);
+		for (int i = 0; i < columnIndexes.length; i++) {
+			if (projection[columnIndexes[i]] != -1)
+				throw new IllegalArgumentException(String.format("Column %s is selected more than once", columnIndexes[i]));
+			projection[columnIndexes[i]] = i;
+		}
+		this.projection = projection;
+		this.selected = columnIndexes.length;
+		this.selectedNames = null;
+		return this;
+	}
+
+	/**
+	 * Restricts the rows to the columns with the specified names in the header, in the specified order. The first row
+	 * of the source is read as the header and is projected the same way as the rest of the rows.
+	 *
+	 * @param columnNames the names of the columns to read
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalStateException if the header has already been read
+	 */
+	public CSVReader select(String... columnNames) {
+		header(true);
+		this.selectedNames = columnNames.clone();
+		return this;
+	}
+
+	/**
+	 * Skips the rows whose value in the specified column does not satisfy the predicate. The predicate is evaluated as
+	 * soon as the field is tokenized, and the rest of a rejected row is skipped without being decoded. Rows that have no
+	 * such column are tested with {@code null}. Multiple predicates on the same column must all be satisfied.
+	 *
+	 * @param columnIndex the index of the tested column
+	 * @param predicate   the predicate the value has to satisfy
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the column index is negative
+	 */
+	public CSVReader where(int columnIndex, Predicate<Object> predicate) {
+		if (columnIndex <= -1)
+			throw new IllegalArgumentException(String.format("Column %s must be greater than -1", columnIndex));
+		Objects.requireNonNull(predicate);
+		while (filters.size() <= columnIndex)
+			filters.add(null);
+		Predicate<Object> filter = filters.get(columnIndex);
+		filters.set(columnIndex, Objects.isNull(filter) ? predicate : filter.and(predicate));
+		return this;
+	}
+
+	/**
+	 * Skips the rows whose value in the column with the specified name does not satisfy the predicate. The first row of
+	 * the source is read as the header.
+	 *
+	 * @param columnName the name of the tested column
+	 * @param predicate  the predicate the value has to satisfy
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalStateException if the header has already been read
+	 * 
+	 * @see #where(int, Predicate)
+	 */
+	public CSVReader where(String columnName, Predicate<Object> predicate) {
+		header(true);
+		namedFilters.merge(columnName, Objects.requireNonNull(predicate), Predicate::and);
+		return this;
+	}
+
+	/**
+	 * Sets the types of the columns of the source. Fields of the subsequent rows are parsed straight into the types of
+	 * their columns; a field that does not match its type is kept as a {@link String}. The header is never converted.
+	 *
+	 * @param schema the types of the columns of the source, or {@code null} to read every field as a {@link String}
+	 *
+	 * @return a reference to this object
+	 */
+	public CSVReader schema(CSVSchema schema) {
+		this.schema = schema;
+		this.sampleRows = 0;
+		return this;
+	}
+
+	/**
+	 * Infers the types of the columns from the specified number of rows following the header. The sampled rows are
+	 * buffered and returned as usual once the schema is known, and every row is then parsed as if the inferred schema had
+	 * been set with {@link #schema(CSVSchema)}. A numeric type is only inferred for a column whose sampled values are
+	 * written in canonical form, so that codes such as {@code 00501} keep their leading zeros. Predicates registered with
+	 * {@link #where(int, Predicate)} receive the converted values.
+	 *
+	 * @param sampleRows the number of rows to sample
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IllegalArgumentException if the number of rows is less than 1
+	 */
+	public CSVReader inferSchema(int sampleRows) {
+		if (sampleRows <= 0)
+			throw new IllegalArgumentException(String.format("Sample row count %s must be greater than 0", sampleRows));
+		this.schema = null;
+		this.sampleRows = sampleRows;
+		return this;
+	}
+
+	/**
+	 * Returns the types of the columns of the source, sampling rows first if the schema is being inferred.
+	 *
+	 * @return the schema of the source, or {@code null} if fields are read as strings
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVSchema schema() throws IOException {
+		if (sampleRows > 0) {
+			pendingHeader = readHeaderIfPresent();
+			sample();
+		}
+		return schema;
+	}
+
+	/**
+	 * Reads the next row. The returned row does not belong to the rows of any table, its {@link CSVRow#table()} only
+	 * carries the delimiter of this reader, and each row is as wide as its own values.
+	 *
+	 * @return the next row, or {@code null} if the end of the source has been reached
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVRow readRow() throws IOException {
+		List<Object> columns = readColumns();
+		return Objects.isNull(columns) ? null : CSVRow.detached(table, columns);
+	}
+
+	/**
+	 * Reads all remaining rows into a new table.
+	 *
+	 * @return a new {@link CSVTable} containing the remaining rows
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVTable readTable() throws IOException {
+		return readTable(new CSVTable().delimiter(delimiter()));
+	}
+
+	/**
+	 * Reads all remaining rows and returns the first of them in the order of a comparator, as they would be after a
+	 * stable sort. Only the selected rows are held in memory, in a heap bounded by the number of returned rows. The
+	 * header, if it has not been read yet, is skipped.
+	 *
+	 * @param comparator the comparator used to compare rows
+	 * @param n          the maximum number of rows to return
+	 *
+	 * @return a new list of at most {@code n} rows, in order
+	 *
+	 * @throws IllegalArgumentException if {@code n} is less than 0
+	 * @throws IOException              if an I/O error occurs
+	 */
+	public List<CSVRow> topN(Comparator<CSVRow> comparator, int n) throws IOException {
+		return topN(CSVTopN.of(comparator, n));
+	}
+
+	/**
+	 * Reads all remaining rows and returns the first of them in the order of the keys, as they would be after
+	 * {@link CSVTable#sortBy(boolean, SortKey...)}. Values are converted to the type of their key once per row, and only
+	 * the selected rows are held in memory, in a heap bounded by the number of returned rows. The header, if it has not
+	 * been read yet, is skipped.
+	 *
+	 * @param n    the maximum number of rows to return
+	 * @param keys the keys to sort by, in order of precedence
+	 *
+	 * @return a new list of at most {@code n} rows, in order
+	 *
+	 * @throws IllegalArgumentException if {@code n} or the column of a key is less than 0
+	 * @throws IOException              if an I/O error occurs
+	 */
+	public List<CSVRow> topN(int n, SortKey... keys) throws IOException {
+		int[] slots = new int[keys.length];
+		for (int key = 0; key < keys.length; key++) {
+			if (keys[key].column() <= -1)
+				throw new IllegalArgumentException(String.format("Column %s must be greater than -1", keys[key].column()));
+			slots[key] = keys[key].column();
+		}
+		return topN(CSVTopN.of(keys, slots, n));
+	}
+
+	private List<CSVRow> topN(CSVTopN topN) throws IOException {
+		pendingHeader = null;
+		readHeaderIfPresent();
+		CSVRow row;
+		while (Objects.nonNull(row = readRow()))
+			topN.offer(row);
+		return topN.result();
+	}
+
+	/**
+	 * Reads all remaining rows and aggregates them into a new table, as {@link CSVTable#aggregate(Aggregation, boolean)}
+	 * does. The fields of every record are aggregated as soon as they are read, without building rows, so the memory
+	 * used is bounded by the number of groups rather than by the size of the source. The header, if it has not been read
+	 * yet, names the columns of the result.
+	 *
+	 * @param aggregation the grouping columns and the aggregates to compute
+	 *
+	 * @return a new table holding the grouping values and the aggregates of every group
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVTable aggregate(Aggregation aggregation) throws IOException {
+		List<Object> header = Objects.nonNull(pendingHeader) ? pendingHeader : readHeaderIfPresent();
+		pendingHeader = null;
+		int[] slots = new int[aggregation.aggregateCount()];
+		for (int aggregate = 0; aggregate < slots.length; aggregate++)
+			slots[aggregate] = aggregation.column(aggregate);
+		CSVAggregator aggregator = new CSVAggregator(aggregation, aggregation.groupColumns(), slots);
+		List<Object> columns;
+		while (Objects.nonNull(columns = readColumns()))
+			aggregator.add(columns);
+		return aggregator.result(Objects.isNull(header) ? null
+				: column -> column < header.size() ? header.get(column) : null, delimiter());
+	}
+
+	CSVTable readTable(CSVTable target) throws IOException {
+		List<Object> columns;
+		while (Objects.nonNull(columns = readColumns()))
+			target.appendRow(columns);
+		return target;
+	}
+
+	List<Object> readColumns() throws IOException {
+		List<Object> header = Objects.nonNull(pendingHeader) ? pendingHeader : readHeaderIfPresent();
+		pendingHeader = null;
+		if (Objects.nonNull(header))
+			return header;
+		if (sampleRows > 0)
+			sample();
+		while (!sample.isEmpty()) {
+			List<Object> columns = convert(sample.poll());
+			if (Objects.nonNull(columns))
+				return columns;
+		}
+		while (parser.nextRecord()) {
+			List<Object> columns = readRecord();
+			if (Objects.nonNull(columns))
+				return columns;
+		}
+		return null;
+	}
+
+	private List<Object> readHeaderIfPresent() throws IOException {
+		if (started)
+			return null;
+		started = true;
+		return header && parser.nextRecord() ? readHeader() : null;
+	}
+
+	private void sample() throws IOException {
+		List<List<Object>> records = new ArrayList<>();
+		while (records.size() < sampleRows && parser.nextRecord())
+			records.add(readAll(false));
+		schema = CSVSchema.infer(records);
+		sampleRows = 0;
+		sample.addAll(records);
+	}
+
+	private List<Object> convert(List<Object> record) {
+		int count = Objects.isNull(projection) ? record.size() : Math.max(projection.length, filters.size());
+		List<Object> columns = Objects.isNull(projection) ? new ArrayList<>(record.size())
+				: Arrays.asList(new Object[selected]);
+		int column = 0;
+		for (; column < Math.min(count, record.size()); column++) {
+			Object value = record.get(column);
+			if (Objects.nonNull(value) && Objects.nonNull(schema))
+				value = schema.type(column).parse((String) value);
+			if (Objects.isNull(value))
+				value = record.get(column);
+			if (isFiltered(column) && !filters.get(column).test(value))
+				return null;
+			if (Objects.isNull(projection))
+				columns.add(value);
+			else if (column < projection.length && projection[column] != -1)
+				columns.set(projection[column], value);
+		}
+		return acceptMissing(column) ? columns : null;
+	}
+
+	private Object value(int column) {
+		if (Objects.isNull(schema))
+			return parser.value();
+		return parser.value(schema.type(column));
+	}
+
+	private List<Object> readRecord() throws IOException {
+		if (Objects.isNull(projection))
+			return readAll(true);
+		Object[] columns = new Object[selected];
+		int count = Math.max(projection.length, filters.size());
+		int column = 0;
+		for (; column < count; column++) {
+			int slot = column < projection.length ? projection[column] : -1;
+			boolean filtered = isFiltered(column);
+			if (!parser.nextField(slot == -1 && !filtered))
+				break;
+			if (!filtered && slot == -1)
+				continue;
+			Object value = value(column);
+			if (filtered && !filters.get(column).test(value))
+				return reject();
+			if (slot != -1)
+				columns[slot] = value;
+		}
+		return acceptMissing(column) ? Arrays.asList(columns) : null;
+	}
+
+	private List<Object> readAll(boolean filter) throws IOException {
+		List<Object> columns = new ArrayList<>();
+		int column = 0;
+		while (parser.nextField(false)) {
+			Object value = filter ? value(column) : parser.value();
+			if (filter && isFiltered(column) && !filters.get(column).test(value))
+				return reject();
+			columns.add(value);
+			column++;
+		}
+		return !filter || acceptMissing(column) ? columns : null;
+	}
+
+	private List<Object> readHeader() throws IOException {
+		List<Object> header = readAll(false);
+		if (Objects.nonNull(selectedNames)) {
+			int[] columnIndexes = new int[selectedNames.length];
+			for (int i = 0; i < selectedNames.length; i++)
+				columnIndexes[i] = columnIndex(header, selectedNames[i]);
+			select(columnIndexes);
+		}
+		for (Map.Entry<String, Predicate<Object>> filter : namedFilters.entrySet())
+			where(columnIndex(header, filter.getKey()), filter.getValue());
+		namedFilters.clear();
+		if (Objects.isNull(projection))
+			return header;
+		Object[] columns = new Object[selected];
+		for (int column = 0; column < Math.min(projection.length, header.size()); column++)
+			if (projection[column] != -1)
+				columns[projection[column]] = header.get(column);
+		return Arrays.asList(columns);
+	}
+
+	private boolean isFiltered(int column) {
+		return column < filters.size() && Objects.nonNull(filters.get(column));
+	}
+
+	private boolean acceptMissing(int column) {
+		for (; column < filters.size(); column++)
+			if (isFiltered(column) && !filters.get(column).test(null))
+				return false;
+		return true;
+	}
+
+	private List<Object> reject() throws IOException {
+		parser.skipRecord();
+		return null;
+	}
+
+	private static int columnIndex(List<Object> header, String columnName) {
+		int columnIndex = header.indexOf(columnName);
+		if (columnIndex == -1)
+			throw new IllegalArgumentException(String.format("Column %s is not in the header", columnName));
+		return columnIndex;
+	}
+
+	int[] readOffsets() throws IOException {
+		if (!parser.nextRecord())
+			return null;
+		started = true;
+		int count = 0;
+		while (parser.nextField(true)) {
+			if (count == offsets.length)
+				offsets = Arrays.copyOf(offsets, 2 * count);
+			offsets[count++] = (int) parser.start();
+			offsets[count++] = (int) parser.end();
+		}
+		return Arrays.copyOf(offsets, count);
+	}
+
+	/**
+	 * Returns the delimiter used for separating columns.
+	 *
+	 * @return the delimiter character
+	 */
+	public char delimiter() {
+		return table.delimiter();
+	}
+
+	/**
+	 * Closes the underlying reader.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+
+}
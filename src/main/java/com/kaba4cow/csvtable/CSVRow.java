@@ -1,5 +1,6 @@
 package com.kaba4cow.csvtable;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -10,18 +11,48 @@ public class CSVRow {
 
 	private final CSVTable table;
 	private Object[] columns;
+	private int size;
+	private String source;
+	private int[] offsets;
+	private CSVColumn[] store;
+	private int storeIndex;
+	private boolean detached;
 
 	CSVRow(CSVTable table) {
 		this.table = table;
-		this.columns = new Object[table.columnCount()];
+		this.columns = new Object[table.slotCount()];
+		this.size = columns.length;
 	}
 
 	CSVRow(CSVTable table, List<Object> columns) {
 		this.table = table;
 		this.columns = new Object[columns.size()];
+		this.size = this.columns.length;
 		columns.toArray(this.columns);
 	}
 
+	/**
+	 * Creates a row that is not stored in the table and only takes its delimiter from it. The columns of the row map
+	 * directly to its slots and the row is as wide as its own values, so that changing its shape never affects the table.
+	 */
+	static CSVRow detached(CSVTable table, List<Object> columns) {
+		CSVRow row = new CSVRow(table, columns);
+		row.detached = true;
+		return row;
+	}
+
+	/**
+	 * Creates a row whose values are decoded from the specified source on first access. The values are not allocated
+	 * until the first of them is decoded or set.
+	 */
+	CSVRow(CSVTable table, String source, int[] offsets) {
+		this.table = table;
+		this.columns = null;
+		this.size = offsets.length / 2;
+		this.source = source;
+		this.offsets = offsets;
+	}
+
 	/**
 	 * Gets the value in the specified column of the row.
 	 *
@@ -33,7 +64,37 @@ public class CSVRow {
 	 */
 	public Object get(int columnIndex) {
 		checkRange(columnIndex);
-		return columns[columnIndex];
+		return value(slot(columnIndex));
+	}
+
+	/**
+	 * Gets the value in the column with the specified name in the header of the table.
+	 *
+	 * @param columnName the name of the column to retrieve
+	 * 
+	 * @return the value in the specified column
+	 * 
+	 * @throws IllegalArgumentException if the header has no column with that name
+	 * 
+	 * @see #get(ColumnRef)
+	 */
+	public Object get(String columnName) {
+		return named(table.slot(columnName));
+	}
+
+	/**
+	 * Gets the value in the referenced column. Unlike {@link #get(String)}, the name of the column is not looked up
+	 * unless the header has changed since the last access through the reference.
+	 *
+	 * @param column the reference to the column to retrieve
+	 * 
+	 * @return the value in the specified column
+	 * 
+	 * @throws IllegalArgumentException if the column does not belong to the table of this row or is no longer in its
+	 *                                  header
+	 */
+	public Object get(ColumnRef column) {
+		return named(column.slot(table));
 	}
 
 	/**
@@ -48,46 +109,54 @@ public class CSVRow {
 	 */
 	public CSVRow set(int columnIndex, Object columnData) {
 		checkRange(columnIndex);
-		columns[columnIndex] = columnData;
+		if (tracked() && table.observes(columnIndex))
+			table.cellChanged(this, columnIndex, get(columnIndex), columnData);
+		table.headerChanged(this);
+		int slot = slot(columnIndex);
+		if (slot >= size && Objects.isNull(columnData))
+			return this;
+		if (Objects.nonNull(store)) {
+			if (slot < size && store[slot].set(storeIndex, columnData))
+				return this;
+			detach();
+		}
+		grow(slot + 1);
+		discard(slot);
+		columns[slot] = columnData;
 		return this;
 	}
 
 	/**
-	 * Adds a new column with the specified data to the row.
+	 * Adds a new column with the specified data to the row. If the row becomes wider than the table, the table is widened
+	 * as well, and the other rows read the new column as {@code null} without being reallocated.
 	 *
 	 * @param columnData the data to add to the new column
 	 * 
 	 * @return a reference to this object
 	 */
 	public CSVRow add(Object columnData) {
-		Object[] newColumns = new Object[columns.length + 1];
-		System.arraycopy(columns, 0, newColumns, 0, columns.length);
-		newColumns[columns.length] = columnData;
-		columns = newColumns;
-		table.resizeTable(columns.length);
-		return this;
-	}
-
-	CSVRow remove(int columnIndex) {
-		checkRange(columnIndex);
-		System.arraycopy(columns, columnIndex + 1, columns, columnIndex, columns.length - columnIndex - 1);
-		columns[columns.length - 1] = null;
-		return this;
-	}
-
-	CSVRow insert(int columnIndex) {
-		Object[] newColumns = new Object[columns.length + 1];
-		System.arraycopy(columns, 0, newColumns, 0, columnIndex);
-		System.arraycopy(columns, columnIndex, newColumns, columnIndex + 1, columns.length - columnIndex);
-		columns = newColumns;
-		return this;
+		int column = columns();
+		if (!detached)
+			table.widen(column + 1);
+		if (Objects.nonNull(store))
+			detach();
+		grow(slot(column) + 1);
+		return set(column, columnData);
 	}
 
-	CSVRow resize(int columnCount) {
+	/**
+	 * Moves the values into the slots matching their columns, dropping the slots of removed columns.
+	 */
+	void compact(int columnCount) {
+		materialize();
 		Object[] newColumns = new Object[columnCount];
-		System.arraycopy(columns, 0, newColumns, 0, Math.min(columns.length, columnCount));
+		for (int column = 0; column < columnCount; column++) {
+			int slot = table.slot(column);
+			if (slot < size)
+				newColumns[column] = columns[slot];
+		}
 		columns = newColumns;
-		return this;
+		size = columnCount;
 	}
 
 	/**
@@ -103,10 +172,21 @@ public class CSVRow {
 			return this;
 		checkRange(columnIndex1);
 		checkRange(columnIndex2);
-		Object columnData1 = columns[columnIndex1];
-		Object columnData2 = columns[columnIndex2];
-		columns[columnIndex1] = columnData2;
-		columns[columnIndex2] = columnData1;
+		int slot1 = slot(columnIndex1);
+		int slot2 = slot(columnIndex2);
+		if (slot1 >= size && slot2 >= size)
+			return this;
+		table.headerChanged(this);
+		materialize();
+		grow(Math.max(slot1, slot2) + 1);
+		Object columnData1 = columns[slot1];
+		Object columnData2 = columns[slot2];
+		if (tracked() && table.observes(columnIndex1))
+			table.cellChanged(this, columnIndex1, columnData1, columnData2);
+		if (tracked() && table.observes(columnIndex2))
+			table.cellChanged(this, columnIndex2, columnData2, columnData1);
+		columns[slot1] = columnData2;
+		columns[slot2] = columnData1;
 		return this;
 	}
 
@@ -120,9 +200,7 @@ public class CSVRow {
 	 * @throws IndexOutOfBoundsException if the column index is out of range
 	 */
 	public CSVRow clear(int columnIndex) {
-		checkRange(columnIndex);
-		columns[columnIndex] = null;
-		return this;
+		return set(columnIndex, null);
 	}
 
 	/**
@@ -131,8 +209,23 @@ public class CSVRow {
 	 * @return a reference to this object
 	 */
 	public CSVRow clear() {
-		for (int column = 0; column < columns(); column++)
-			columns[column] = null;
+		if (tracked())
+			table.removeValues(this);
+		table.headerChanged(this);
+		return reset();
+	}
+
+	/**
+	 * Clears all the values in the row without reporting the change to the table.
+	 */
+	CSVRow reset() {
+		if (Objects.nonNull(store))
+			columns = new Object[size];
+		store = null;
+		source = null;
+		offsets = null;
+		allocate();
+		Arrays.fill(columns, 0, size, null);
 		return this;
 	}
 
@@ -169,33 +262,30 @@ public class CSVRow {
 	 * @return the number of columns in the row
 	 */
 	public int columns() {
-		return columns.length;
+		return detached ? size : table.rowWidth(size);
 	}
 
-	String toString(int columnIndex, char delimiter) {
-		checkRange(columnIndex);
-		Object data = get(columnIndex);
-		if (Objects.isNull(data))
-			return "";
-		String string = data.toString();
-		if (string.contains(Character.toString(delimiter)) || string.contains("\n") || string.contains("\r")
-				|| string.contains("\""))
-			return String.format("\"%s\"", string.replace("\"", "\"\""));
-		else
-			return string;
-	}
-
-	String toAlignedString(int[] widths) {
-		StringBuilder builder = new StringBuilder();
+	/**
+	 * Returns the number of slots holding values of this row.
+	 */
+	int size() {
+		return size;
+	}
+
+	StringBuilder appendTo(StringBuilder builder, char delimiter) {
 		for (int column = 0; column < columns(); column++) {
 			if (column > 0)
-				builder.append(table.delimiter());
-			String string = toString(column, table.delimiter());
-			builder.append(string);
-			for (int i = string.length(); i < widths[column]; i++)
-				builder.append(' ');
+				builder.append(delimiter);
+			Object data = get(column);
+			if (Objects.isNull(data))
+				continue;
+			String string = data.toString();
+			if (CSVWriter.needsQuotes(string, delimiter))
+				CSVWriter.quote(string, builder);
+			else
+				builder.append(string);
 		}
-		return builder.toString();
+		return builder;
 	}
 
 	/**
@@ -205,13 +295,124 @@ public class CSVRow {
 	 */
 	@Override
 	public String toString() {
-		StringBuilder builder = new StringBuilder();
-		for (int column = 0; column < columns(); column++) {
-			if (column > 0)
-				builder.append(table.delimiter());
-			builder.append(toString(column, table.delimiter()));
-		}
-		return builder.toString();
+		return appendTo(new StringBuilder(), table.delimiter()).toString();
+	}
+
+	/**
+	 * Detaches the row from the table it has been removed from. Its values are moved into its own slots in the order of
+	 * the columns, so that later column operations on the table no longer affect it, and changes to its values are no
+	 * longer reported to the table.
+	 */
+	void removed() {
+		compact(columns());
+		detached = true;
+	}
+
+	/**
+	 * Returns whether changes to the values of the row are reported to the table.
+	 */
+	private boolean tracked() {
+		return !detached;
+	}
+
+	/**
+	 * Returns the value of the column stored in the specified slot of the table, which a detached row holds at the
+	 * current index of the column.
+	 */
+	private Object named(int slot) {
+		if (!detached)
+			return value(slot);
+		int column = table.column(slot);
+		return column < 0 ? null : value(column);
+	}
+
+	private int slot(int column) {
+		return detached ? column : table.slot(column);
+	}
+
+	/**
+	 * Returns the value in the specified slot.
+	 */
+	Object value(int slot) {
+		if (slot >= size)
+			return null;
+		if (Objects.nonNull(store))
+			return store[slot].get(storeIndex);
+		if (isEncoded(slot))
+			decode(slot);
+		return columns[slot];
+	}
+
+	/**
+	 * Returns the column-oriented storage of the specified slot, or {@code null} if the row is not a view over one.
+	 */
+	CSVColumn store(int slot) {
+		return Objects.nonNull(store) && slot < size ? store[slot] : null;
+	}
+
+	int storeIndex() {
+		return storeIndex;
+	}
+
+	private boolean isEncoded(int column) {
+		return Objects.nonNull(offsets) && 2 * column < offsets.length && offsets[2 * column] >= 0;
+	}
+
+	private void decode(int column) {
+		allocate();
+		columns[column] = CSVParser.decode(source, offsets[2 * column], offsets[2 * column + 1]);
+		offsets[2 * column] = -1;
+	}
+
+	void view(CSVColumn[] store, int storeIndex) {
+		this.size = columns();
+		this.columns = null;
+		this.source = null;
+		this.offsets = null;
+		this.store = store;
+		this.storeIndex = storeIndex;
+	}
+
+	private void detach() {
+		columns = new Object[size];
+		for (int column = 0; column < size; column++)
+			columns[column] = store[column].get(storeIndex);
+		store = null;
+	}
+
+	private void materialize() {
+		if (Objects.nonNull(store))
+			detach();
+		if (Objects.isNull(offsets))
+			return;
+		for (int column = 0; column < size; column++)
+			if (isEncoded(column))
+				decode(column);
+		source = null;
+		offsets = null;
+		allocate();
+	}
+
+	private void discard(int column) {
+		if (isEncoded(column))
+			offsets[2 * column] = -1;
+	}
+
+	/**
+	 * Allocates the values of a row read from a source that has not decoded or set any of them yet.
+	 */
+	private void allocate() {
+		if (Objects.isNull(columns))
+			columns = new Object[size];
+	}
+
+	private void grow(int columnCount) {
+		allocate();
+		if (columnCount <= size)
+			return;
+		if (columnCount > columns.length)
+			columns = Arrays.copyOf(columns, Math.max(columnCount, 2 * columns.length));
+		size = columnCount;
 	}
 
 	private void checkRange(int column) {
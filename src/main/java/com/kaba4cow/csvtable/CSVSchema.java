@@ -0,0 +1,110 @@
+package com.kaba4cow.csvtable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Describes the types of the columns of a CSV source.
+ */
+public class CSVSchema {
+
+	private final ColumnType[] types;
+
+	/**
+	 * Creates a {@code CSVSchema} with the specified column types.
+	 *
+	 * @param types the types of the columns, in column order
+	 */
+	public CSVSchema(ColumnType... types) {
+		this.types = types.clone();
+		for (ColumnType type : this.types)
+			Objects.requireNonNull(type);
+	}
+
+	/**
+	 * Infers the first type in declaration order that parses every non-null value of a column. A numeric type is only
+	 * inferred for values written in canonical form, so that values such as {@code 00501} or {@code +7} stay strings.
+	 */
+	static CSVSchema infer(List<List<Object>> records) {
+		int columns = 0;
+		for (List<Object> record : records)
+			columns = Math.max(columns, record.size());
+		ColumnType[] values = ColumnType.values();
+		ColumnType[] types = new ColumnType[columns];
+		for (int column = 0; column < columns; column++) {
+			boolean[] candidates = new boolean[values.length];
+			Arrays.fill(candidates, true);
+			boolean empty = true;
+			for (List<Object> record : records) {
+				Object value = column < record.size() ? record.get(column) : null;
+				if (Objects.isNull(value))
+					continue;
+				empty = false;
+				for (ColumnType type : values)
+					if (candidates[type.ordinal()]
+							&& (!isCanonical(type, (String) value) || Objects.isNull(type.parse((String) value))))
+						candidates[type.ordinal()] = false;
+			}
+			types[column] = ColumnType.STRING;
+			for (ColumnType type : values)
+				if (!empty && candidates[type.ordinal()]) {
+					types[column] = type;
+					break;
+				}
+		}
+		return new CSVSchema(types);
+	}
+
+	/**
+	 * Returns whether the field is a canonical value of the type. Canonical numbers have an optional minus sign and no
+	 * leading zeros, integral numbers have neither a fraction nor an exponent, and a bare zero has no sign.
+	 */
+	private static boolean isCanonical(ColumnType type, String field) {
+		switch (type) {
+			case INTEGER:
+			case LONG:
+				return !field.equals("-0") && ColumnType.isDecimal(field, true, true);
+			case DOUBLE:
+				return !field.equals("-0") && ColumnType.isDecimal(field, true, false);
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Returns the type of the specified column. Columns beyond the schema are of type {@link ColumnType#STRING}.
+	 *
+	 * @param columnIndex the index of the column
+	 * 
+	 * @return the type of the column
+	 * 
+	 * @throws IndexOutOfBoundsException if the column index is negative
+	 */
+	public ColumnType type(int columnIndex) {
+		if (columnIndex <= -1)
+			throw new IndexOutOfBoundsException(String.format("Column %s is out of bounds [0, %s]", columnIndex,
+					columnCount() - 1));
+		return columnIndex < types.length ? types[columnIndex] : ColumnType.STRING;
+	}
+
+	/**
+	 * Returns the number of columns described by the schema.
+	 *
+	 * @return the number of columns
+	 */
+	public int columnCount() {
+		return types.length;
+	}
+
+	/**
+	 * Returns a string listing the types of the columns.
+	 *
+	 * @return a string representation of the schema
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(types);
+	}
+
+}
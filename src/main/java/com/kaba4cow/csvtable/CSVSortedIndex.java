@@ -0,0 +1,290 @@
+package com.kaba4cow.csvtable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Sorted index on a column of a {@link CSVTable}, answering range queries. Keys and rows are kept in two parallel arrays
+ * sorted by key, so a range is located by binary search and scanned sequentially. Numbers are ordered by value
+ * regardless of their type, values of the same {@link Comparable} type by their natural order, and values of different
+ * types by the name of their type. Rows sharing a key are kept in the order they were indexed.
+ *
+ * @see CSVTable#createSortedIndex(int)
+ */
+public class CSVSortedIndex extends CSVIndex {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private Object[] keys;
+	private CSVRow[] rows;
+	private int size;
+	private int keyCount;
+	private int modCount;
+
+	CSVSortedIndex(CSVTable table, int slot) {
+		super(table, slot);
+		this.keys = new Object[MIN_CAPACITY];
+		this.rows = new CSVRow[MIN_CAPACITY];
+		this.size = 0;
+		this.keyCount = 0;
+		this.modCount = 0;
+	}
+
+	@Override
+	public List<CSVRow> lookup(Object key) {
+		checkState();
+		if (Objects.isNull(key))
+			return new RowList(0, 0);
+		return new RowList(lowerBound(key, true), lowerBound(key, false));
+	}
+
+	/**
+	 * Returns a cursor over the rows whose value in the indexed column is at least {@code lo} and less than {@code hi},
+	 * in the order of their values.
+	 *
+	 * @param lo the inclusive lower bound, or {@code null} for no lower bound
+	 * @param hi the exclusive upper bound, or {@code null} for no upper bound
+	 *
+	 * @return a cursor over the matching rows
+	 *
+	 * @throws IllegalStateException if the index has been dropped
+	 *
+	 * @see #range(Object, boolean, Object, boolean)
+	 */
+	public Iterator<CSVRow> range(Object lo, Object hi) {
+		return range(lo, true, hi, false);
+	}
+
+	/**
+	 * Returns a cursor over the rows whose value in the indexed column lies between the specified bounds, in the order of
+	 * their values. If only one bound is specified, the range is limited to values of the same kind as that bound, so
+	 * that for instance a range of numbers never includes a header of strings. The cursor fails with a
+	 * {@link ConcurrentModificationException} if the index changes while it is in use.
+	 *
+	 * @param lo          the lower bound, or {@code null} for no lower bound
+	 * @param loInclusive whether rows equal to the lower bound are included
+	 * @param hi          the upper bound, or {@code null} for no upper bound
+	 * @param hiInclusive whether rows equal to the upper bound are included
+	 *
+	 * @return a cursor over the matching rows
+	 *
+	 * @throws IllegalStateException if the index has been dropped
+	 */
+	public Iterator<CSVRow> range(Object lo, boolean loInclusive, Object hi, boolean hiInclusive) {
+		checkState();
+		int from;
+		if (Objects.nonNull(lo))
+			from = lowerBound(lo, loInclusive);
+		else
+			from = Objects.isNull(hi) ? 0 : groupBound(hi, true);
+		int to;
+		if (Objects.nonNull(hi))
+			to = lowerBound(hi, !hiInclusive);
+		else
+			to = Objects.isNull(lo) ? size : groupBound(lo, false);
+		return new Cursor(from, Math.max(from, to));
+	}
+
+	@Override
+	public int keyCount() {
+		return keyCount;
+	}
+
+	@Override
+	public int rowCount() {
+		return size;
+	}
+
+	@Override
+	public long memoryUsage() {
+		return 2L * OBJECT_HEADER_SIZE + 2L * keys.length * REFERENCE_SIZE;
+	}
+
+	@Override
+	void build(List<CSVRow> table) {
+		List<Object[]> entries = new ArrayList<>();
+		for (CSVRow row : table) {
+			Object key = row.value(slot());
+			if (Objects.nonNull(key))
+				entries.add(new Object[] { key, row });
+		}
+		entries.sort((entry1, entry2) -> compare(entry1[0], entry2[0]));
+		keys = new Object[Math.max(MIN_CAPACITY, entries.size())];
+		rows = new CSVRow[keys.length];
+		for (Object[] entry : entries) {
+			if (size == 0 || compare(keys[size - 1], entry[0]) != 0)
+				keyCount++;
+			keys[size] = entry[0];
+			rows[size++] = (CSVRow) entry[1];
+		}
+		modCount++;
+	}
+
+	@Override
+	void add(Object key, CSVRow row) {
+		if (Objects.isNull(key))
+			return;
+		int index = lowerBound(key, false);
+		if (index == 0 || compare(keys[index - 1], key) != 0)
+			keyCount++;
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, 2 * size);
+			rows = Arrays.copyOf(rows, 2 * size);
+		}
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(rows, index, rows, index + 1, size - index);
+		keys[index] = key;
+		rows[index] = row;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	void remove(Object key, CSVRow row) {
+		if (Objects.isNull(key))
+			return;
+		int index = lowerBound(key, true);
+		while (index < size && rows[index] != row && compare(keys[index], key) == 0)
+			index++;
+		if (index == size || rows[index] != row)
+			return;
+		boolean shared = index > 0 && compare(keys[index - 1], key) == 0
+				|| index + 1 < size && compare(keys[index + 1], key) == 0;
+		if (!shared)
+			keyCount--;
+		System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+		System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+		size--;
+		keys[size] = null;
+		rows[size] = null;
+		modCount++;
+	}
+
+	@Override
+	void clear() {
+		keys = new Object[MIN_CAPACITY];
+		rows = new CSVRow[MIN_CAPACITY];
+		size = 0;
+		keyCount = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns the position of the first key that is not less than the key if {@code inclusive}, or greater than the key
+	 * otherwise.
+	 */
+	private int lowerBound(Object key, boolean inclusive) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			int comparison = compare(keys[mid], key);
+			if (comparison < 0 || comparison == 0 && !inclusive)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the position of the first key of the same kind as the value if {@code inclusive}, or of the first key of a
+	 * kind ordered after it otherwise.
+	 */
+	private int groupBound(Object value, boolean inclusive) {
+		String group = group(value);
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			int comparison = group(keys[mid]).compareTo(group);
+			if (comparison < 0 || comparison == 0 && !inclusive)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Compares two non-null values in the order of the index.
+	 */
+	@SuppressWarnings("unchecked")
+	static int compare(Object value1, Object value2) {
+		if (value1 instanceof Number && value2 instanceof Number) {
+			if (isIntegral(value1) && isIntegral(value2))
+				return Long.compare(((Number) value1).longValue(), ((Number) value2).longValue());
+			return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+		}
+		if (value1.getClass() == value2.getClass() && value1 instanceof Comparable)
+			return ((Comparable<Object>) value1).compareTo(value2);
+		return group(value1).compareTo(group(value2));
+	}
+
+	private static String group(Object value) {
+		return value instanceof Number ? Number.class.getName() : value.getClass().getName();
+	}
+
+	private class Cursor implements Iterator<CSVRow> {
+
+		private final int expectedModCount;
+		private final int end;
+		private int position;
+
+		Cursor(int start, int end) {
+			this.expectedModCount = modCount;
+			this.end = end;
+			this.position = start;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return position < end;
+		}
+
+		@Override
+		public CSVRow next() {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (position >= end)
+				throw new NoSuchElementException();
+			return rows[position++];
+		}
+
+	}
+
+	private class RowList extends AbstractList<CSVRow> {
+
+		private final int expectedModCount;
+		private final int start;
+		private final int end;
+
+		RowList(int start, int end) {
+			this.expectedModCount = modCount;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public CSVRow get(int index) {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (index < 0 || index >= size())
+				throw new IndexOutOfBoundsException(String.format("Row %s is out of bounds [0, %s]", index, size() - 1));
+			return rows[start + index];
+		}
+
+		@Override
+		public int size() {
+			return end - start;
+		}
+
+	}
+
+}
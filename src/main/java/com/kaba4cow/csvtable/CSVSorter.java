@@ -0,0 +1,203 @@
+package com.kaba4cow.csvtable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sorts rows by the typed values of their columns. The values of each key are converted once, into sortable
+ * {@code long} bits where the type allows it, and a permutation of the rows is sorted by the keys from the last to the
+ * first with stable sorts: a radix sort for {@code long} bits and a merge sort for other values. Null values and values
+ * that do not match the type of their key are ordered last.
+ */
+class CSVSorter {
+
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	private final List<CSVRow> rows;
+	private final int from;
+
+	private CSVSorter(List<CSVRow> rows, int from) {
+		this.rows = rows;
+		this.from = from;
+	}
+
+	/**
+	 * Returns the sorted order of the rows starting at the specified index, as indexes relative to it.
+	 */
+	static int[] sort(List<CSVRow> rows, int from, int[] slots, SortKey[] keys) {
+		CSVSorter sorter = new CSVSorter(rows, from);
+		int[] order = new int[rows.size() - from];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		for (int key = keys.length - 1; key >= 0; key--)
+			order = sorter.sort(order, slots[key], keys[key]);
+		return order;
+	}
+
+	private int[] sort(int[] order, int slot, SortKey key) {
+		ColumnType type = key.type();
+		boolean descending = key.order() == Order.DESCENDING;
+		boolean radix = type != ColumnType.STRING && type != ColumnType.DATE_TIME;
+		int[] sorted = new int[order.length];
+		int[] nulls = new int[order.length];
+		long[] bits = radix ? new long[order.length] : null;
+		Object[] values = radix ? null : new Object[order.length];
+		int count = 0;
+		int nullCount = 0;
+		for (int i = 0; i < order.length; i++) {
+			Object value = value(order[i], slot, type);
+			if (Objects.isNull(value)) {
+				nulls[nullCount++] = order[i];
+				continue;
+			}
+			if (radix) {
+				long sortable = bits(value, type);
+				bits[count] = descending ? ~sortable : sortable;
+			} else
+				values[count] = value;
+			sorted[count++] = order[i];
+		}
+		if (radix)
+			radixSort(bits, sorted, count);
+		else
+			mergeSort(values, sorted, count, descending);
+		System.arraycopy(nulls, 0, sorted, count, nullCount);
+		return sorted;
+	}
+
+	private Object value(int row, int slot, ColumnType type) {
+		return key(rows.get(from + row).value(slot), type);
+	}
+
+	/**
+	 * Converts the value to the specified type, returning {@code null} if it does not match the type.
+	 */
+	static Object key(Object value, ColumnType type) {
+		if (Objects.isNull(value))
+			return null;
+		if (value instanceof Number && (type == ColumnType.DOUBLE
+				|| CSVIndex.isIntegral(value) && (type == ColumnType.INTEGER || type == ColumnType.LONG)))
+			return value;
+		return type.parse(value.toString());
+	}
+
+	/**
+	 * Compares two values converted to the type of the key in the order of the key, ordering {@code null} values last.
+	 */
+	static int compare(Object value1, Object value2, SortKey key) {
+		if (Objects.isNull(value1) || Objects.isNull(value2))
+			return Objects.isNull(value1) ? Objects.isNull(value2) ? 0 : 1 : -1;
+		ColumnType type = key.type();
+		int comparison;
+		if (type == ColumnType.STRING || type == ColumnType.DATE_TIME)
+			comparison = compare(value1, value2);
+		else
+			comparison = Long.compareUnsigned(bits(value1, type), bits(value2, type));
+		return key.order() == Order.DESCENDING ? -comparison : comparison;
+	}
+
+	/**
+	 * Converts the value into bits whose unsigned order is the order of the values.
+	 */
+	private static long bits(Object value, ColumnType type) {
+		switch (type) {
+			case DOUBLE:
+				long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+				return bits < 0L ? ~bits : bits | Long.MIN_VALUE;
+			case BOOLEAN:
+				return (Boolean) value ? 1L : 0L;
+			case DATE:
+				return ((LocalDate) value).toEpochDay() ^ Long.MIN_VALUE;
+			case TIME:
+				return ((LocalTime) value).toNanoOfDay();
+			default:
+				return ((Number) value).longValue() ^ Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * Sorts the rows by the unsigned order of their bits, least significant byte first, skipping bytes shared by all the
+	 * rows. The sort is stable.
+	 */
+	private static void radixSort(long[] bits, int[] rows, int count) {
+		long[] bitsBuffer = new long[count];
+		int[] rowsBuffer = new int[count];
+		long[] sourceBits = bits;
+		int[] sourceRows = rows;
+		int[] offsets = new int[RADIX + 1];
+		for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+			Arrays.fill(offsets, 0);
+			for (int i = 0; i < count; i++)
+				offsets[(int) (sourceBits[i] >>> shift) & RADIX - 1]++;
+			if (count == 0 || offsets[(int) (sourceBits[0] >>> shift) & RADIX - 1] == count)
+				continue;
+			for (int digit = 0, offset = 0; digit <= RADIX; digit++) {
+				int digitCount = offsets[digit];
+				offsets[digit] = offset;
+				offset += digitCount;
+			}
+			for (int i = 0; i < count; i++) {
+				int position = offsets[(int) (sourceBits[i] >>> shift) & RADIX - 1]++;
+				bitsBuffer[position] = sourceBits[i];
+				rowsBuffer[position] = sourceRows[i];
+			}
+			long[] swapBits = sourceBits;
+			sourceBits = bitsBuffer;
+			bitsBuffer = swapBits;
+			int[] swapRows = sourceRows;
+			sourceRows = rowsBuffer;
+			rowsBuffer = swapRows;
+		}
+		if (sourceRows != rows)
+			System.arraycopy(sourceRows, 0, rows, 0, count);
+	}
+
+	/**
+	 * Sorts the rows by their values in natural order. The sort is stable.
+	 */
+	private static void mergeSort(Object[] values, int[] rows, int count, boolean descending) {
+		int[] order = new int[count];
+		for (int i = 0; i < count; i++)
+			order[i] = i;
+		mergeSort(values, order, new int[count], 0, count, descending ? -1 : 1);
+		int[] sorted = new int[count];
+		for (int i = 0; i < count; i++)
+			sorted[i] = rows[order[i]];
+		System.arraycopy(sorted, 0, rows, 0, count);
+	}
+
+	private static void mergeSort(Object[] values, int[] order, int[] buffer, int lo, int hi, int direction) {
+		if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+			for (int i = lo + 1; i < hi; i++) {
+				int current = order[i];
+				int j = i;
+				for (; j > lo && compare(values[order[j - 1]], values[current]) * direction > 0; j--)
+					order[j] = order[j - 1];
+				order[j] = current;
+			}
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		mergeSort(values, order, buffer, lo, mid, direction);
+		mergeSort(values, order, buffer, mid, hi, direction);
+		if (compare(values[order[mid - 1]], values[order[mid]]) * direction <= 0)
+			return;
+		System.arraycopy(order, lo, buffer, lo, hi - lo);
+		for (int i = lo, left = lo, right = mid; i < hi; i++)
+			if (right == hi || left < mid && compare(values[buffer[left]], values[buffer[right]]) * direction <= 0)
+				order[i] = buffer[left++];
+			else
+				order[i] = buffer[right++];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int compare(Object value1, Object value2) {
+		return Integer.signum(((Comparable<Object>) value1).compareTo(value2));
+	}
+
+}
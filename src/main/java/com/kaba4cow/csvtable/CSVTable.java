@@ -1,27 +1,60 @@
 package com.kaba4cow.csvtable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a table of CSV data. Provides methods to manipulate rows, columns, and the delimiter used for CSV formatting.
  */
 public class CSVTable {
 
+	private static final int DEFAULT_DICTIONARY_THRESHOLD = 1 << 16;
+	private static final int DEFAULT_PARALLEL_SORT_THRESHOLD = 1 << 13;
+
 	private final List<CSVRow> rows;
 	private int columns;
+	private int[] slots;
+	private int[] slotColumns;
+	private int slotCount;
+	private int padded;
 	private char delimiter;
+	private int parallelSortThreshold;
+	private int[] widths;
+	private Map<String, Integer> names;
+	private CSVRow namesRow;
+	private boolean duplicateNames;
+	private int epoch;
+	private final List<CSVIndex> indexes;
 
 	/**
 	 * Creates an empty {@code CSVTable} with a default delimiter {@code ','}.
 	 */
 	public CSVTable() {
 		this.rows = new ArrayList<>();
+		this.indexes = new ArrayList<>();
 		this.columns = 0;
+		this.padded = -1;
 		this.delimiter = ',';
+		this.parallelSortThreshold = DEFAULT_PARALLEL_SORT_THRESHOLD;
 	}
 
 	/**
@@ -41,18 +74,143 @@ public class CSVTable {
 	 */
 	public CSVTable(String source, char delimiter) {
 		this.rows = new ArrayList<>();
+		this.indexes = new ArrayList<>();
 		this.columns = 0;
+		this.padded = -1;
 		this.delimiter = delimiter;
-		if (!source.isEmpty()) {
-			List<String> lines = CSVParser.parseSource(source);
-			for (String line : lines) {
-				CSVRow row = new CSVRow(this, CSVParser.parseLine(line, delimiter));
-				columns = Math.max(columns, row.columns());
-				rows.add(row);
-			}
+		this.parallelSortThreshold = DEFAULT_PARALLEL_SORT_THRESHOLD;
+		try (CSVReader reader = new CSVReader(new StringReader(source), delimiter)) {
+			reader.readTable(this);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Creates a {@code CSVTable} whose rows keep the boundaries of their fields in the source string instead of parsed
+	 * values. A field is decoded the first time it is read, so columns that are never accessed are never allocated. The
+	 * source string is retained for as long as any of its rows still has undecoded fields.
+	 *
+	 * @param source    the CSV source string
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 * 
+	 * @return a new table containing the parsed rows
+	 */
+	public static CSVTable parseLazy(String source, char delimiter) {
+		CSVTable table = new CSVTable().delimiter(delimiter);
+		try (CSVReader reader = new CSVReader(new StringReader(source), delimiter)) {
+			int[] offsets;
+			while (Objects.nonNull(offsets = reader.readOffsets()))
+				table.appendRow(new CSVRow(table, source, offsets));
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return table;
+	}
+
+	/**
+	 * Reads a {@code CSVTable} from the provided reader using the specified delimiter. The source is consumed row by row
+	 * through a {@link CSVReader}, so it never has to be held in memory as a whole.
+	 *
+	 * @param reader    the source of CSV data
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 * 
+	 * @return a new table containing the parsed rows
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static CSVTable read(Reader reader, char delimiter) throws IOException {
+		return new CSVReader(reader, delimiter).readTable();
+	}
+
+	/**
+	 * Loads a {@code CSVTable} from a UTF-8 encoded file using a default delimiter {@code ','}.
+	 *
+	 * @param path the path of the CSV file
+	 * 
+	 * @return a new table containing the parsed rows
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 * 
+	 * @see #load(Path, Charset, char)
+	 */
+	public static CSVTable load(Path path) throws IOException {
+		return load(path, StandardCharsets.UTF_8, ',');
+	}
+
+	/**
+	 * Loads a {@code CSVTable} from a file by memory-mapping it and tokenizing directly from the mapped bytes, so the file
+	 * content is never materialized as a {@code String} and repeated loads are served from the OS page cache.
+	 *
+	 * @param path      the path of the CSV file
+	 * @param charset   the charset of the file
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 * 
+	 * @return a new table containing the parsed rows
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static CSVTable load(Path path, Charset charset, char delimiter) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+				CSVReader reader = new CSVReader(new CSVMappedReader(channel, charset, 0L, channel.size()), delimiter)) {
+			return reader.readTable();
 		}
 	}
 
+	/**
+	 * Loads a {@code CSVTable} from a file by parsing byte ranges of it concurrently on the common
+	 * {@link ForkJoinPool}.
+	 *
+	 * @param path      the path of the CSV file
+	 * @param charset   the charset of the file
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 * 
+	 * @return a new table containing the parsed rows
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 * 
+	 * @see #loadParallel(Path, Charset, char, ForkJoinPool)
+	 */
+	public static CSVTable loadParallel(Path path, Charset charset, char delimiter) throws IOException {
+		return loadParallel(path, charset, delimiter, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Loads a {@code CSVTable} from a file by splitting it into byte ranges that are parsed concurrently on the specified
+	 * pool. Range edges are moved to record boundaries, taking quoted line breaks into account, and the parsed rows are
+	 * stitched together in their original order. Charsets that do not encode quotes, line breaks and the delimiter as
+	 * single ASCII bytes are parsed sequentially.
+	 *
+	 * @param path      the path of the CSV file
+	 * @param charset   the charset of the file
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 * @param pool      the pool that parses the byte ranges
+	 * 
+	 * @return a new table containing the parsed rows
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static CSVTable loadParallel(Path path, Charset charset, char delimiter, ForkJoinPool pool) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return CSVParallelLoader.load(channel, charset, delimiter, pool);
+		}
+	}
+
+	CSVRow appendRow(List<Object> columns) {
+		return appendRow(new CSVRow(this, columns));
+	}
+
+	CSVRow appendRow(CSVRow row) {
+		compact();
+		columns = Math.max(columns, row.size());
+		slotCount = columns;
+		widths = null;
+		rows.add(row);
+		for (CSVIndex index : indexes)
+			index.add(row.value(index.slot()), row);
+		return row;
+	}
+
 	/**
 	 * Returns the first row of the table (header row).
 	 *
@@ -62,6 +220,103 @@ public class CSVTable {
 		return getRow(0);
 	}
 
+	/**
+	 * Returns the index of the column with the specified name in the header. Names are looked up in an index of the
+	 * header that is built on first use and kept across column insertions, removals and swaps. If the header repeats a
+	 * name, the first column with that name is returned.
+	 *
+	 * @param columnName the name of the column
+	 * 
+	 * @return the index of the column, or {@code -1} if the header has no column with that name
+	 */
+	public int columnIndex(String columnName) {
+		Integer slot = names().get(columnName);
+		return Objects.isNull(slot) ? -1 : column(slot);
+	}
+
+	/**
+	 * Returns a reference to the column with the specified name in the header. Reading a row through the reference
+	 * involves no lookup by name as long as the header is unchanged.
+	 *
+	 * @param columnName the name of the column
+	 * 
+	 * @return a reference to the column
+	 * 
+	 * @throws IllegalArgumentException if the header has no column with that name
+	 */
+	public ColumnRef column(String columnName) {
+		return new ColumnRef(this, columnName);
+	}
+
+	/**
+	 * Returns the slot of the column with the specified name in the header.
+	 *
+	 * @throws IllegalArgumentException if the header has no column with that name
+	 */
+	int slot(String columnName) {
+		Integer slot = names().get(columnName);
+		if (Objects.isNull(slot))
+			throw new IllegalArgumentException(String.format("Column %s is not in the header", columnName));
+		return slot;
+	}
+
+	/**
+	 * Returns the version of the header index, which changes whenever a name may have been mapped to another slot.
+	 */
+	int epoch() {
+		names();
+		return epoch;
+	}
+
+	/**
+	 * Drops the header index if the row is the header it was built from.
+	 */
+	void headerChanged(CSVRow row) {
+		if (row == namesRow)
+			names = null;
+	}
+
+	private Map<String, Integer> names() {
+		if (Objects.nonNull(names) && !rows.isEmpty() && rows.get(0) == namesRow)
+			return names;
+		names = new HashMap<>();
+		namesRow = rows.isEmpty() ? null : rows.get(0);
+		duplicateNames = false;
+		if (Objects.nonNull(namesRow))
+			for (int column = 0; column < Math.min(namesRow.columns(), columns); column++) {
+				Object name = namesRow.get(column);
+				if (Objects.nonNull(name) && Objects.nonNull(names.putIfAbsent(name.toString(), slot(column))))
+					duplicateNames = true;
+			}
+		epoch++;
+		return names;
+	}
+
+	/**
+	 * Drops the header index if the header repeats a name, so that the name is mapped again to the first of its columns
+	 * once the columns have been reordered.
+	 */
+	private void unnameDuplicates() {
+		if (duplicateNames)
+			names = null;
+	}
+
+	/**
+	 * Drops the header index if any of the columns in the specified range is indexed by its name, so that the index is
+	 * rebuilt without them.
+	 */
+	private void unname(int from, int to) {
+		if (Objects.isNull(names) || Objects.isNull(namesRow))
+			return;
+		for (int column = from; column < Math.min(to, namesRow.columns()); column++) {
+			Object name = namesRow.get(column);
+			if (Objects.nonNull(name) && Objects.equals(names.get(name.toString()), slot(column))) {
+				names = null;
+				return;
+			}
+		}
+	}
+
 	/**
 	 * Gets the row at the specified index.
 	 *
@@ -111,7 +366,10 @@ public class CSVTable {
 	 */
 	public CSVRow removeRow(int rowIndex) {
 		checkRowRange(rowIndex);
-		return rows.remove(rowIndex);
+		CSVRow row = rows.remove(rowIndex);
+		removeValues(row);
+		row.removed();
+		return row;
 	}
 
 	/**
@@ -121,7 +379,11 @@ public class CSVTable {
 	 */
 	public CSVTable clearRows() {
 		for (CSVRow row : rows)
-			row.clear();
+			row.reset();
+		for (CSVIndex index : indexes)
+			index.clear();
+		names = null;
+		widths = new int[columnCount()];
 		return this;
 	}
 
@@ -153,9 +415,7 @@ public class CSVTable {
 	 */
 	public CSVTable removeColumn(int columnIndex) {
 		checkColumnRange(columnIndex);
-		for (CSVRow row : rows)
-			row.remove(columnIndex);
-		resizeTable(columnCount() - 1);
+		removeColumns(columnIndex, columnIndex + 1);
 		return this;
 	}
 
@@ -170,9 +430,13 @@ public class CSVTable {
 	 */
 	public CSVTable insertColumn(int columnIndex) {
 		checkColumnRange(columnIndex);
-		for (CSVRow row : rows)
-			row.insert(columnIndex);
+		mapSlots();
+		slots = insert(slots, columns, columnIndex, slotCount++);
+		if (Objects.nonNull(widths))
+			widths = insert(widths, columns, columnIndex, 0);
 		columns++;
+		mapColumns();
+		padded = columns;
 		return this;
 	}
 
@@ -187,10 +451,54 @@ public class CSVTable {
 	 * @throws IndexOutOfBoundsException If either of the column indexes is out of range.
 	 */
 	public CSVTable swapColumns(int columnIndex1, int columnIndex2) {
+		checkColumnRange(columnIndex1);
+		checkColumnRange(columnIndex2);
 		if (columnIndex1 == columnIndex2)
 			return this;
-		for (CSVRow row : rows)
-			row.swap(columnIndex1, columnIndex2);
+		mapSlots();
+		swap(slots, columnIndex1, columnIndex2);
+		swap(slotColumns, slots[columnIndex1], slots[columnIndex2]);
+		unnameDuplicates();
+		if (Objects.nonNull(widths))
+			swap(widths, columnIndex1, columnIndex2);
+		padded = columns;
+		return this;
+	}
+
+	/**
+	 * Reorders the columns of the table so that the column at each index of the new order is the column previously at
+	 * the specified index.
+	 *
+	 * @param columnIndexes the previous indexes of the columns, in their new order
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if the indexes are not a permutation of the column indexes
+	 */
+	public CSVTable reorderColumns(int... columnIndexes) {
+		if (columnIndexes.length != columnCount())
+			throw new IllegalArgumentException(
+					String.format("Column order length %s must be equal to column count %s", columnIndexes.length, columnCount()));
+		boolean[] seen = new boolean[columnCount()];
+		for (int column : columnIndexes) {
+			checkColumnRange(column);
+			if (seen[column])
+				throw new IllegalArgumentException(String.format("Column %s is repeated in column order", column));
+			seen[column] = true;
+		}
+		mapSlots();
+		int[] newSlots = new int[columns];
+		int[] newWidths = Objects.isNull(widths) ? null : new int[columns];
+		for (int column = 0; column < columns; column++) {
+			newSlots[column] = slots[columnIndexes[column]];
+			if (Objects.nonNull(newWidths))
+				newWidths[column] = widths[columnIndexes[column]];
+		}
+		slots = newSlots;
+		widths = newWidths;
+		mapColumns();
+		unnameDuplicates();
+		padded = columns;
 		return this;
 	}
 
@@ -206,49 +514,218 @@ public class CSVTable {
 	public CSVTable resizeTable(int columnCount) {
 		if (columnCount <= -1)
 			throw new IllegalArgumentException(String.format("Column count %s must be greater than -1", columnCount));
+		if (columnCount < columns) {
+			unname(columnCount, columns);
+			dropIndexes(columnCount, columns);
+		}
+		if (columnCount > columns && slotCount > columns)
+			mapSlots();
+		if (Objects.nonNull(slots)) {
+			for (int column = columnCount; column < columns; column++)
+				slotColumns[slots[column]] = -1;
+			slots = grow(slots, columnCount);
+			slotColumns = grow(slotColumns, slotCount + columnCount - columns);
+			for (int column = columns; column < columnCount; column++) {
+				slots[column] = slotCount;
+				slotColumns[slotCount++] = column;
+			}
+		} else
+			slotCount = Math.max(slotCount, columnCount);
+		if (Objects.nonNull(widths)) {
+			widths = grow(widths, columnCount);
+			Arrays.fill(widths, Math.min(columns, columnCount), columnCount, 0);
+		}
 		columns = columnCount;
-		for (CSVRow row : rows)
-			row.resize(columnCount);
+		padded = columnCount;
+		compactIfSparse();
 		return this;
 	}
 
+	/**
+	 * Widens the table to the specified column count if it is narrower. Rows are not reallocated: cells in slots past the
+	 * values of a row read as {@code null}.
+	 */
+	void widen(int columnCount) {
+		if (columnCount > columns)
+			resizeTable(columnCount);
+	}
+
+	/**
+	 * Returns the slot that holds the values of the specified column in the rows of the table. Columns are mapped to
+	 * slots so that inserting, removing and reordering columns only changes the mapping, and a slot is never reused for
+	 * another column until the table is compacted.
+	 */
+	int slot(int column) {
+		return Objects.isNull(slots) ? column : slots[column];
+	}
+
+	/**
+	 * Returns the number of slots in the rows of the table, including the slots of removed columns.
+	 */
+	int slotCount() {
+		return slotCount;
+	}
+
+	/**
+	 * Returns the number of columns of a row holding values in the specified number of slots. Rows may be shorter than
+	 * the table as long as its columns have not been reshaped.
+	 */
+	int rowWidth(int size) {
+		return padded == columns ? columns : Math.max(size, padded);
+	}
+
+	/**
+	 * Returns the column stored in the specified slot, or {@code -1} if the slot belongs to a removed column.
+	 */
+	int column(int slot) {
+		if (Objects.isNull(slots))
+			return slot < columns ? slot : -1;
+		return slot < slotCount ? slotColumns[slot] : -1;
+	}
+
+	private void mapSlots() {
+		if (Objects.nonNull(slots))
+			return;
+		slots = new int[columns];
+		for (int column = 0; column < columns; column++)
+			slots[column] = column;
+		mapColumns();
+	}
+
+	/**
+	 * Rebuilds the inverse of the mapping of columns to slots after the mapping has changed.
+	 */
+	private void mapColumns() {
+		if (Objects.isNull(slots))
+			return;
+		slotColumns = new int[slotCount];
+		Arrays.fill(slotColumns, -1);
+		for (int column = 0; column < columns; column++)
+			slotColumns[slots[column]] = column;
+	}
+
+	private void removeColumns(int from, int to) {
+		unname(from, to);
+		dropIndexes(from, to);
+		mapSlots();
+		remove(slots, columns, from, to);
+		if (Objects.nonNull(widths))
+			remove(widths, columns, from, to);
+		columns -= to - from;
+		padded = columns;
+		mapColumns();
+		compactIfSparse();
+	}
+
+	private void compactIfSparse() {
+		if (slotCount - columns > columns)
+			compact();
+	}
+
+	/**
+	 * Moves the values of every row into the slots matching their columns and drops the slots of removed columns.
+	 */
+	private void compact() {
+		if (Objects.isNull(slots) && slotCount == columns)
+			return;
+		for (CSVIndex index : indexes)
+			index.slot(column(index.slot()));
+		for (CSVRow row : rows)
+			row.compact(columns);
+		names = null;
+		slots = null;
+		slotColumns = null;
+		slotCount = columns;
+	}
+
+	/**
+	 * Returns the array if it can hold the specified number of elements, or a copy of it with at least twice its length
+	 * otherwise. The arrays of the table are longer than the number of columns they describe, so that appending a column
+	 * does not copy them.
+	 */
+	private static int[] grow(int[] array, int length) {
+		return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, 2 * array.length));
+	}
+
+	private static int[] insert(int[] array, int length, int index, int value) {
+		int[] result = grow(array, length + 1);
+		System.arraycopy(result, index, result, index + 1, length - index);
+		result[index] = value;
+		return result;
+	}
+
+	private static void remove(int[] array, int length, int from, int to) {
+		System.arraycopy(array, to, array, from, length - to);
+	}
+
+	private static void swap(int[] array, int index1, int index2) {
+		int value = array[index1];
+		array[index1] = array[index2];
+		array[index2] = value;
+	}
+
 	/**
 	 * Removes all empty columns from the left side of the table.
 	 *
 	 * @return a reference to this object
+	 * 
+	 * @see #trim()
 	 */
 	public CSVTable trimLeft() {
-		for (CSVRow row : rows)
-			if (Objects.nonNull(row.first()))
-				return this;
-		removeColumn(0);
-		return trimLeft();
+		return trim(true, false);
 	}
 
 	/**
 	 * Removes all empty columns from the right side of the table.
 	 *
 	 * @return a reference to this object
+	 * 
+	 * @see #trim()
 	 */
 	public CSVTable trimRight() {
-		for (CSVRow row : rows)
-			if (Objects.nonNull(row.last()))
-				return this;
-		removeColumn(columnCount() - 1);
-		return trimRight();
+		return trim(false, true);
 	}
 
 	/**
-	 * Removes empty columns from both sides of the table.
+	 * Removes empty columns from both sides of the table. A column is empty if it is {@code null} in every row. The
+	 * bounds of the non-empty columns are found in a single pass over the rows, and the table is reshaped once.
 	 *
 	 * @return a reference to this object
 	 */
 	public CSVTable trim() {
-		return trimLeft().trimRight();
+		return trim(true, true);
+	}
+
+	private CSVTable trim(boolean left, boolean right) {
+		int first = left ? columnCount() : 0;
+		int last = right ? -1 : columnCount() - 1;
+		for (CSVRow row : rows) {
+			int width = Math.min(row.columns(), columnCount());
+			for (int column = 0; column < Math.min(first, width); column++)
+				if (Objects.nonNull(row.get(column))) {
+					first = column;
+					break;
+				}
+			for (int column = width - 1; column > last; column--)
+				if (Objects.nonNull(row.get(column))) {
+					last = column;
+					break;
+				}
+		}
+		if (first > last)
+			return resizeTable(0);
+		if (last + 1 < columnCount())
+			resizeTable(last + 1);
+		if (first > 0)
+			removeColumns(0, first);
+		return this;
 	}
 
 	/**
-	 * Sorts the rows of the table based on a comparator.
+	 * Sorts the rows of the table based on a comparator. The sort is stable, and when the header is not affected it stays
+	 * in place while the remaining rows are sorted. Once the number of sorted rows reaches the
+	 * {@link #parallelSortThreshold(int) parallel sort threshold}, the rows are sorted in parallel on the common
+	 * {@link ForkJoinPool}, in which case the comparator may be called concurrently for distinct rows.
 	 *
 	 * @param comparator   The comparator used to compare rows.
 	 * @param affectHeader Whether or not the header should be affected.
@@ -256,12 +733,272 @@ public class CSVTable {
 	 * @return a reference to this object
 	 */
 	public CSVTable sort(Comparator<CSVRow> comparator, boolean affectHeader) {
-		CSVRow header = header();
-		if (!affectHeader)
-			rows.remove(0);
-		Collections.sort(rows, comparator);
-		if (!affectHeader)
-			rows.add(0, header);
+		CSVRow[] array = rows.toArray(new CSVRow[0]);
+		int from = affectHeader ? 0 : Math.min(1, array.length);
+		if (array.length - from >= parallelSortThreshold)
+			Arrays.parallelSort(array, from, array.length, comparator);
+		else
+			Arrays.sort(array, from, array.length, comparator);
+		for (int row = from; row < array.length; row++)
+			rows.set(row, array[row]);
+		return this;
+	}
+
+	/**
+	 * Sorts the rows of the table by the values of a column converted to the specified type.
+	 *
+	 * @param columnIndex  the index of the column to sort by
+	 * @param type         the type of the values of the column
+	 * @param order        the order of the values
+	 * @param affectHeader whether or not the header should be affected
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IndexOutOfBoundsException if the column index is out of range
+	 *
+	 * @see #sortBy(boolean, SortKey...)
+	 */
+	public CSVTable sortBy(int columnIndex, ColumnType type, Order order, boolean affectHeader) {
+		return sortBy(affectHeader, new SortKey(columnIndex, type, order));
+	}
+
+	/**
+	 * Sorts the rows of the table by the values of several columns, each converted to the type of its key. Rows are
+	 * ordered by the first key, rows with equal values by the second key, and so on. Every value is converted once
+	 * before sorting rather than on each comparison, and numbers, booleans, dates and times are sorted by their
+	 * primitive representation without comparing objects. The sort is stable, and values that are {@code null} or do
+	 * not match the type of their key are ordered last, regardless of the order of the key.
+	 *
+	 * @param affectHeader whether or not the header should be affected
+	 * @param keys         the keys to sort by, in order of precedence
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IndexOutOfBoundsException if the column of a key is out of range
+	 */
+	public CSVTable sortBy(boolean affectHeader, SortKey... keys) {
+		int[] keySlots = new int[keys.length];
+		for (int key = 0; key < keys.length; key++) {
+			checkColumnRange(keys[key].column());
+			keySlots[key] = slot(keys[key].column());
+		}
+		int from = affectHeader ? 0 : Math.min(1, rows.size());
+		int[] order = CSVSorter.sort(rows, from, keySlots, keys);
+		CSVRow[] array = rows.subList(from, rows.size()).toArray(new CSVRow[0]);
+		for (int row = 0; row < order.length; row++)
+			rows.set(from + row, array[order[row]]);
+		return this;
+	}
+
+	/**
+	 * Returns the first rows of the table in the order of a comparator, as they would be after a stable
+	 * {@link #sort(Comparator, boolean) sort}, without sorting the table. The rows are selected through a heap bounded by
+	 * the number of returned rows, in {@code O(rows log n)} time. The table itself is not modified.
+	 *
+	 * @param comparator   the comparator used to compare rows
+	 * @param n            the maximum number of rows to return
+	 * @param affectHeader whether or not the header should be ranked with the other rows
+	 *
+	 * @return a new list of at most {@code n} rows, in order
+	 *
+	 * @throws IllegalArgumentException if {@code n} is less than 0
+	 */
+	public List<CSVRow> topN(Comparator<CSVRow> comparator, int n, boolean affectHeader) {
+		return topN(CSVTopN.of(comparator, n), affectHeader);
+	}
+
+	/**
+	 * Returns the first rows of the table in the order of the keys, as they would be after
+	 * {@link #sortBy(boolean, SortKey...)}, without sorting the table. Values are converted to the type of their key once
+	 * per row, and the rows are selected through a heap bounded by the number of returned rows, in
+	 * {@code O(rows log n)} time. The table itself is not modified.
+	 *
+	 * @param n            the maximum number of rows to return
+	 * @param affectHeader whether or not the header should be ranked with the other rows
+	 * @param keys         the keys to sort by, in order of precedence
+	 *
+	 * @return a new list of at most {@code n} rows, in order
+	 *
+	 * @throws IllegalArgumentException  if {@code n} is less than 0
+	 * @throws IndexOutOfBoundsException if the column of a key is out of range
+	 */
+	public List<CSVRow> topN(int n, boolean affectHeader, SortKey... keys) {
+		int[] keySlots = new int[keys.length];
+		for (int key = 0; key < keys.length; key++) {
+			checkColumnRange(keys[key].column());
+			keySlots[key] = slot(keys[key].column());
+		}
+		return topN(CSVTopN.of(keys, keySlots, n), affectHeader);
+	}
+
+	private List<CSVRow> topN(CSVTopN topN, boolean affectHeader) {
+		for (int row = affectHeader ? 0 : 1; row < rows.size(); row++)
+			topN.offer(rows.get(row));
+		return topN.result();
+	}
+
+	/**
+	 * Groups the rows of the table and computes the aggregates of every group into a new table, with a row per group in
+	 * the order of the first row of each group. Grouping values are mapped to integer codes through primitive maps, and
+	 * the dictionary codes of {@link #columnar(boolean) dictionary-encoded} columns are used directly. When the header is not
+	 * affected, it is not aggregated and names the columns of the result.
+	 *
+	 * @param aggregation  the grouping columns and the aggregates to compute
+	 * @param affectHeader whether or not the header should be aggregated with the other rows
+	 *
+	 * @return a new table holding the grouping values and the aggregates of every group
+	 *
+	 * @throws IndexOutOfBoundsException if a column of the aggregation is out of range
+	 */
+	public CSVTable aggregate(Aggregation aggregation, boolean affectHeader) {
+		int[] groupColumns = aggregation.groupColumns();
+		int[] groupSlots = new int[groupColumns.length];
+		for (int i = 0; i < groupColumns.length; i++) {
+			checkColumnRange(groupColumns[i]);
+			groupSlots[i] = slot(groupColumns[i]);
+		}
+		int[] aggregateSlots = new int[aggregation.aggregateCount()];
+		for (int aggregate = 0; aggregate < aggregateSlots.length; aggregate++) {
+			int column = aggregation.column(aggregate);
+			if (column >= 0)
+				checkColumnRange(column);
+			aggregateSlots[aggregate] = column < 0 ? -1 : slot(column);
+		}
+		CSVAggregator aggregator = new CSVAggregator(aggregation, groupSlots, aggregateSlots);
+		int from = affectHeader ? 0 : Math.min(1, rows.size());
+		for (int row = from; row < rows.size(); row++)
+			aggregator.add(rows.get(row));
+		return aggregator.result(from == 0 ? null : column -> rows.get(0).value(slot(column)), delimiter);
+	}
+
+	/**
+	 * Joins the rows of this table with the rows of another table whose key column holds an equal value.
+	 *
+	 * @param other        the right table of the join
+	 * @param column       the index of the key column in this table
+	 * @param otherColumn  the index of the key column in the other table
+	 * @param type         the kind of join
+	 * @param affectHeader whether or not the headers should be joined with the other rows
+	 *
+	 * @return a new table holding the joined rows
+	 *
+	 * @throws IndexOutOfBoundsException if a key column is out of range
+	 *
+	 * @see #join(CSVTable, int[], int[], JoinType, boolean)
+	 */
+	public CSVTable join(CSVTable other, int column, int otherColumn, JoinType type, boolean affectHeader) {
+		return join(other, new int[] { column }, new int[] { otherColumn }, type, affectHeader);
+	}
+
+	/**
+	 * Joins the rows of this table with the rows of another table whose key columns hold equal values, integral numbers
+	 * being equal by value regardless of their type. The rows of the result hold the columns of this table followed by
+	 * the columns of the other table, or only the columns of this table for an {@link JoinType#ANTI anti} join, and follow
+	 * the order of the rows of this table. This is a hash join: the smaller table is hashed on its keys and the rows of
+	 * the larger table look up their matches, concurrently on the common {@link ForkJoinPool} when there are many of
+	 * them. Rows with a {@code null} key never match. When the headers are not affected, they are not joined and their
+	 * concatenation becomes the header of the result.
+	 *
+	 * @param other        the right table of the join
+	 * @param columns      the indexes of the key columns in this table
+	 * @param otherColumns the indexes of the key columns in the other table
+	 * @param type         the kind of join
+	 * @param affectHeader whether or not the headers should be joined with the other rows
+	 *
+	 * @return a new table holding the joined rows
+	 *
+	 * @throws IllegalArgumentException  if there are no key columns or not as many in both tables
+	 * @throws IndexOutOfBoundsException if a key column is out of range
+	 */
+	public CSVTable join(CSVTable other, int[] columns, int[] otherColumns, JoinType type, boolean affectHeader) {
+		if (columns.length == 0 || columns.length != otherColumns.length)
+			throw new IllegalArgumentException(String.format("Key column counts %s and %s must be equal and greater than 0",
+					columns.length, otherColumns.length));
+		Objects.requireNonNull(type);
+		int[] keySlots = new int[columns.length];
+		int[] otherKeySlots = new int[columns.length];
+		for (int key = 0; key < columns.length; key++) {
+			checkColumnRange(columns[key]);
+			other.checkColumnRange(otherColumns[key]);
+			keySlots[key] = slot(columns[key]);
+			otherKeySlots[key] = other.slot(otherColumns[key]);
+		}
+		int from = affectHeader ? 0 : Math.min(1, rows.size());
+		int otherFrom = affectHeader ? 0 : Math.min(1, other.rows.size());
+		return CSVJoin.join(rows.subList(from, rows.size()), keySlots, columnCount(), from == 0 ? null : header(),
+				other.rows.subList(otherFrom, other.rows.size()), otherKeySlots, other.columnCount(),
+				otherFrom == 0 ? null : other.header(), type, delimiter);
+	}
+
+	/**
+	 * Sets the minimum number of rows for which {@link #sort(Comparator, boolean)} sorts in parallel.
+	 *
+	 * @param parallelSortThreshold the minimum number of rows sorted in parallel
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if the threshold is less than 1
+	 */
+	public CSVTable parallelSortThreshold(int parallelSortThreshold) {
+		if (parallelSortThreshold <= 0)
+			throw new IllegalArgumentException(
+					String.format("Parallel sort threshold %s must be greater than 0", parallelSortThreshold));
+		this.parallelSortThreshold = parallelSortThreshold;
+		return this;
+	}
+
+	/**
+	 * Returns the minimum number of rows for which {@link #sort(Comparator, boolean)} sorts in parallel.
+	 *
+	 * @return the parallel sort threshold
+	 */
+	public int parallelSortThreshold() {
+		return parallelSortThreshold;
+	}
+
+	/**
+	 * Switches the table to column-oriented storage. Each column whose values all share one of the types
+	 * {@link Integer}, {@link Long}, {@link Double} or {@link Boolean} is stored in a primitive array, a column of strings
+	 * is either dictionary-encoded when it repeats few distinct values or stored in a single character array, and nulls
+	 * are tracked in a bitmap. The rows become views over the columns
+	 * and keep their API; a row is copied back into its own storage when its shape changes or when it is given a value
+	 * that does not fit the type of its column. When the header is not affected it keeps its own storage, so that its
+	 * names do not decide the types of the columns.
+	 *
+	 * @param affectHeader whether or not the header should be stored with the other rows
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @see #columnar(int, boolean)
+	 */
+	public CSVTable columnar(boolean affectHeader) {
+		return columnar(DEFAULT_DICTIONARY_THRESHOLD, affectHeader);
+	}
+
+	/**
+	 * Switches the table to column-oriented storage like {@link #columnar(boolean)}. A column of strings with at most the
+	 * specified number of distinct values, and no more than one distinct value per two rows, is dictionary-encoded: each
+	 * distinct string is stored once and rows hold an integer code into the dictionary.
+	 *
+	 * @param dictionaryThreshold the maximum number of distinct values of a dictionary-encoded column
+	 * @param affectHeader        whether or not the header should be stored with the other rows
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if the threshold is less than 0
+	 */
+	public CSVTable columnar(int dictionaryThreshold, boolean affectHeader) {
+		if (dictionaryThreshold <= -1)
+			throw new IllegalArgumentException(
+					String.format("Dictionary threshold %s must be greater than -1", dictionaryThreshold));
+		compact();
+		int from = affectHeader ? 0 : Math.min(1, rows.size());
+		List<CSVRow> stored = rows.subList(from, rows.size());
+		CSVColumn[] store = new CSVColumn[columnCount()];
+		for (int column = 0; column < store.length; column++)
+			store[column] = CSVColumn.of(stored, column, dictionaryThreshold);
+		for (int row = 0; row < stored.size(); row++)
+			stored.get(row).view(store, row);
 		return this;
 	}
 
@@ -292,6 +1029,7 @@ public class CSVTable {
 	 */
 	public CSVTable delimiter(char delimiter) {
 		this.delimiter = delimiter;
+		this.widths = null;
 		return this;
 	}
 
@@ -304,23 +1042,228 @@ public class CSVTable {
 		return delimiter;
 	}
 
+	/**
+	 * Writes the table in CSV format to the provided writer. Rows are streamed through a {@link CSVWriter} without
+	 * building the whole document in memory, and fields are quoted as described there: empty strings and values with
+	 * leading or trailing whitespace are quoted as well, so that the output is read back as the same values. The writer
+	 * is flushed but not closed.
+	 *
+	 * @param writer the destination of CSV data
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVTable writeTo(Writer writer) throws IOException {
+		new CSVWriter(writer, delimiter).writeTable(this).flush();
+		return this;
+	}
+
+	/**
+	 * Writes the table in CSV format to the provided stream. The stream is flushed but not closed.
+	 *
+	 * @param stream  the destination of CSV data
+	 * @param charset the charset used to encode the stream
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 * 
+	 * @see #writeTo(Writer)
+	 */
+	public CSVTable writeTo(OutputStream stream, Charset charset) throws IOException {
+		new CSVWriter(stream, charset, delimiter).writeTable(this).flush();
+		return this;
+	}
+
+	/**
+	 * Writes the table in CSV format to the provided channel. The channel is not closed.
+	 *
+	 * @param channel the destination of CSV data
+	 * @param charset the charset used to encode the channel
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 * 
+	 * @see #writeTo(Writer)
+	 */
+	public CSVTable writeTo(FileChannel channel, Charset charset) throws IOException {
+		new CSVWriter(channel, charset, delimiter).writeTable(this).flush();
+		return this;
+	}
+
+	/**
+	 * Writes the table to the provided writer with every field padded with spaces to the width of its column. Each field
+	 * is escaped once, as it is written. Column widths are kept up to date as values change and are only recomputed for
+	 * columns whose widest value was overwritten or removed. The writer is flushed but not closed.
+	 *
+	 * @param writer the destination of the aligned table
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVTable writeAlignedTo(Writer writer) throws IOException {
+		int[] widths = widths();
+		CSVWriter output = new CSVWriter(writer, delimiter);
+		for (CSVRow row : rows)
+			output.writeAlignedRow(row, widths);
+		output.flush();
+		return this;
+	}
+
 	/**
 	 * Converts the table into a string with aligned columns.
 	 *
 	 * @return a string representing the table with aligned columns
+	 * 
+	 * @see #writeAlignedTo(Writer)
 	 */
 	public String toAlignedString() {
-		int[] widths = new int[columnCount()];
-		for (CSVRow row : rows)
-			for (int column = 0; column < columnCount(); column++)
-				widths[column] = Math.max(widths[column], row.toString(column, delimiter()).length());
-		StringBuilder builder = new StringBuilder();
-		for (int row = 0; row < rowCount(); row++) {
-			if (row > 0)
-				builder.append('\n');
-			builder.append(rows.get(row).toAlignedString(widths));
+		StringWriter writer = new StringWriter();
+		try {
+			writeAlignedTo(writer);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
 		}
-		return builder.toString();
+		return writer.toString();
+	}
+
+	/**
+	 * Creates a hash index on the specified column, or returns the existing index on that column. The index maps every
+	 * value of the column to the rows holding it, answering lookups in constant time, and is kept up to date as rows
+	 * are added, removed and modified. An index is dropped when its column is removed.
+	 *
+	 * @param columnIndex the index of the column to index
+	 * 
+	 * @return the index on the column
+	 * 
+	 * @throws IndexOutOfBoundsException if the column index is out of range
+	 */
+	public CSVIndex createIndex(int columnIndex) {
+		checkColumnRange(columnIndex);
+		for (CSVIndex index : indexes)
+			if (index.slot() == slot(columnIndex) && index instanceof CSVHashIndex)
+				return index;
+		return addIndex(new CSVHashIndex(this, slot(columnIndex)));
+	}
+
+	/**
+	 * Creates a sorted index on the specified column, or returns the existing sorted index on that column. Besides
+	 * lookups, the index answers range queries over the values of the column, and is kept up to date as rows are added,
+	 * removed and modified. An index is dropped when its column is removed.
+	 *
+	 * @param columnIndex the index of the column to index
+	 * 
+	 * @return the sorted index on the column
+	 * 
+	 * @throws IndexOutOfBoundsException if the column index is out of range
+	 */
+	public CSVSortedIndex createSortedIndex(int columnIndex) {
+		checkColumnRange(columnIndex);
+		for (CSVIndex index : indexes)
+			if (index.slot() == slot(columnIndex) && index instanceof CSVSortedIndex)
+				return (CSVSortedIndex) index;
+		return addIndex(new CSVSortedIndex(this, slot(columnIndex)));
+	}
+
+	private <T extends CSVIndex> T addIndex(T index) {
+		index.build(rows);
+		indexes.add(index);
+		return index;
+	}
+
+	/**
+	 * Drops the specified index, which stops being updated.
+	 *
+	 * @param index the index to drop
+	 * 
+	 * @return a reference to this object
+	 */
+	public CSVTable dropIndex(CSVIndex index) {
+		if (indexes.remove(index))
+			index.drop();
+		return this;
+	}
+
+	private void dropIndexes(int from, int to) {
+		for (int column = from; column < to && !indexes.isEmpty(); column++)
+			for (int i = indexes.size() - 1; i >= 0; i--)
+				if (indexes.get(i).slot() == slot(column))
+					indexes.remove(i).drop();
+	}
+
+	/**
+	 * Returns whether changes to the specified column have to be reported through
+	 * {@link #cellChanged(CSVRow, int, Object, Object)}.
+	 */
+	boolean observes(int column) {
+		if (tracksWidth(column))
+			return true;
+		for (CSVIndex index : indexes)
+			if (index.slot() == slot(column))
+				return true;
+		return false;
+	}
+
+	void cellChanged(CSVRow row, int column, Object oldData, Object newData) {
+		updateWidth(column, oldData, newData);
+		for (CSVIndex index : indexes)
+			if (index.slot() == slot(column)) {
+				index.remove(oldData, row);
+				index.add(newData, row);
+			}
+	}
+
+	/**
+	 * Removes the values of the row from the column widths and indexes of the table.
+	 */
+	void removeValues(CSVRow row) {
+		removeWidths(row);
+		for (CSVIndex index : indexes)
+			index.remove(row.value(index.slot()), row);
+	}
+
+	boolean tracksWidth(int column) {
+		return Objects.nonNull(widths) && widths[column] >= 0;
+	}
+
+	void updateWidth(int column, Object oldData, Object newData) {
+		if (!tracksWidth(column))
+			return;
+		int width = CSVWriter.escapedLength(newData, delimiter);
+		if (width >= widths[column])
+			widths[column] = width;
+		else if (CSVWriter.escapedLength(oldData, delimiter) == widths[column])
+			widths[column] = -1;
+	}
+
+	private void removeWidths(CSVRow row) {
+		if (Objects.isNull(widths))
+			return;
+		for (int column = 0; column < row.columns(); column++)
+			if (widths[column] > 0 && CSVWriter.escapedLength(row.get(column), delimiter) == widths[column])
+				widths[column] = -1;
+	}
+
+	private int[] widths() {
+		if (Objects.isNull(widths)) {
+			widths = new int[columnCount()];
+			Arrays.fill(widths, -1);
+		}
+		int[] stale = new int[columns];
+		int count = 0;
+		for (int column = 0; column < columns; column++)
+			if (widths[column] < 0) {
+				widths[column] = 0;
+				stale[count++] = column;
+			}
+		if (count > 0)
+			for (CSVRow row : rows)
+				for (int i = 0; i < count && stale[i] < row.columns(); i++)
+					widths[stale[i]] = Math.max(widths[stale[i]], CSVWriter.escapedLength(row.get(stale[i]), delimiter));
+		return widths;
 	}
 
 	/**
@@ -334,7 +1277,7 @@ public class CSVTable {
 		for (int row = 0; row < rowCount(); row++) {
 			if (row > 0)
 				builder.append('\n');
-			builder.append(rows.get(row).toString());
+			rows.get(row).appendTo(builder, delimiter);
 		}
 		return builder.toString();
 	}
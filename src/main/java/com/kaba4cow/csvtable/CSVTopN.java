@@ -0,0 +1,161 @@
+package com.kaba4cow.csvtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Selects the first rows in sort order without sorting all of them. The selected rows are kept in a bounded heap whose
+ * root is the last of them, so every offered row is compared with the root and only rows ordered before it enter the
+ * heap. Rows that compare equal are ordered by the order in which they were offered, so the selection matches the first
+ * rows of a stable sort.
+ */
+class CSVTopN {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private final Comparator<CSVRow> comparator;
+	private final SortKey[] keys;
+	private final int[] slots;
+	private final int limit;
+	private CSVRow[] rows;
+	private Object[][] values;
+	private long[] sequences;
+	private int size;
+	private long sequence;
+
+	private CSVTopN(Comparator<CSVRow> comparator, SortKey[] keys, int[] slots, int limit) {
+		this.comparator = comparator;
+		this.keys = keys;
+		this.slots = slots;
+		this.limit = limit;
+		int capacity = Math.min(limit, MIN_CAPACITY);
+		this.rows = new CSVRow[capacity];
+		this.values = new Object[capacity][];
+		this.sequences = new long[capacity];
+		this.size = 0;
+		this.sequence = 0L;
+	}
+
+	/**
+	 * Creates a selection of the first rows in the order of the comparator.
+	 */
+	static CSVTopN of(Comparator<CSVRow> comparator, int limit) {
+		return new CSVTopN(Objects.requireNonNull(comparator), null, null, checkLimit(limit));
+	}
+
+	/**
+	 * Creates a selection of the first rows in the order of the keys, whose values are read from the specified slots.
+	 */
+	static CSVTopN of(SortKey[] keys, int[] slots, int limit) {
+		return new CSVTopN(null, keys, slots, checkLimit(limit));
+	}
+
+	private static int checkLimit(int limit) {
+		if (limit <= -1)
+			throw new IllegalArgumentException(String.format("Row count %s must be greater than -1", limit));
+		return limit;
+	}
+
+	void offer(CSVRow row) {
+		long rowSequence = sequence++;
+		if (limit == 0)
+			return;
+		Object[] rowValues = values(row);
+		if (size < limit) {
+			if (size == rows.length)
+				grow();
+			set(size, row, rowValues, rowSequence);
+			siftUp(size++);
+		} else if (compare(row, rowValues, rowSequence, 0) < 0) {
+			set(0, row, rowValues, rowSequence);
+			siftDown(0);
+		}
+	}
+
+	/**
+	 * Returns the selected rows in sort order.
+	 */
+	List<CSVRow> result() {
+		CSVRow[] sorted = new CSVRow[size];
+		while (size > 0) {
+			sorted[size - 1] = rows[0];
+			size--;
+			set(0, rows[size], values[size], sequences[size]);
+			rows[size] = null;
+			values[size] = null;
+			siftDown(0);
+		}
+		return new ArrayList<>(Arrays.asList(sorted));
+	}
+
+	private Object[] values(CSVRow row) {
+		if (Objects.isNull(keys))
+			return null;
+		Object[] rowValues = new Object[keys.length];
+		for (int key = 0; key < keys.length; key++)
+			rowValues[key] = CSVSorter.key(row.value(slots[key]), keys[key].type());
+		return rowValues;
+	}
+
+	/**
+	 * Compares a row with the row at the specified position of the heap.
+	 */
+	private int compare(CSVRow row, Object[] rowValues, long rowSequence, int position) {
+		int comparison = 0;
+		if (Objects.nonNull(comparator))
+			comparison = comparator.compare(row, rows[position]);
+		else
+			for (int key = 0; key < keys.length && comparison == 0; key++)
+				comparison = CSVSorter.compare(rowValues[key], values[position][key], keys[key]);
+		return comparison != 0 ? comparison : Long.compare(rowSequence, sequences[position]);
+	}
+
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (compare(rows[position], values[position], sequences[position], parent) <= 0)
+				return;
+			swap(position, parent);
+			position = parent;
+		}
+	}
+
+	private void siftDown(int position) {
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size)
+				return;
+			if (child + 1 < size && compare(rows[child + 1], values[child + 1], sequences[child + 1], child) > 0)
+				child++;
+			if (compare(rows[position], values[position], sequences[position], child) >= 0)
+				return;
+			swap(position, child);
+			position = child;
+		}
+	}
+
+	private void set(int position, CSVRow row, Object[] rowValues, long rowSequence) {
+		rows[position] = row;
+		values[position] = rowValues;
+		sequences[position] = rowSequence;
+	}
+
+	private void swap(int position1, int position2) {
+		CSVRow row = rows[position1];
+		Object[] rowValues = values[position1];
+		long rowSequence = sequences[position1];
+		set(position1, rows[position2], values[position2], sequences[position2]);
+		set(position2, row, rowValues, rowSequence);
+	}
+
+	private void grow() {
+		int capacity = (int) Math.min(limit, 2L * rows.length);
+		rows = Arrays.copyOf(rows, capacity);
+		values = Arrays.copyOf(values, capacity);
+		sequences = Arrays.copyOf(sequences, capacity);
+	}
+
+}
@@ -0,0 +1,289 @@
+package com.kaba4cow.csvtable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Writes CSV rows to a character stream through a reusable buffer. Rows are separated by {@code '\n'}, producing the
+ * same text as {@link CSVTable#toString()}. A field is enclosed in quotes, with its quotes doubled, if it contains the
+ * delimiter, a quote or a line break, and also if it is an empty string or starts or ends with whitespace, so that every
+ * written value is read back unchanged: unquoted fields are trimmed and blank unquoted fields are read as {@code null}.
+ * A {@code null} value is written as an empty field.
+ */
+public class CSVWriter implements Closeable, Flushable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Writer writer;
+	private final char delimiter;
+	private final char[] buffer;
+	private int position;
+	private boolean started;
+
+	/**
+	 * Creates a {@code CSVWriter} writing to the provided writer using a default delimiter {@code ','}.
+	 *
+	 * @param writer the destination of CSV data
+	 */
+	public CSVWriter(Writer writer) {
+		this(writer, ',');
+	}
+
+	/**
+	 * Creates a {@code CSVWriter} writing to the provided writer using the specified delimiter.
+	 *
+	 * @param writer    the destination of CSV data
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 */
+	public CSVWriter(Writer writer, char delimiter) {
+		this(writer, delimiter, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a {@code CSVWriter} writing to the provided writer using the specified delimiter and buffer size.
+	 *
+	 * @param writer     the destination of CSV data
+	 * @param delimiter  the delimiter used for separating columns in the CSV
+	 * @param bufferSize the size of the character buffer
+	 *
+	 * @throws IllegalArgumentException if the buffer size is less than 1
+	 */
+	public CSVWriter(Writer writer, char delimiter, int bufferSize) {
+		if (bufferSize <= 0)
+			throw new IllegalArgumentException(String.format("Buffer size %s must be greater than 0", bufferSize));
+		this.writer = Objects.requireNonNull(writer);
+		this.delimiter = delimiter;
+		this.buffer = new char[bufferSize];
+		this.position = 0;
+		this.started = false;
+	}
+
+	/**
+	 * Creates a {@code CSVWriter} writing to the provided stream using the specified charset and delimiter.
+	 *
+	 * @param stream    the destination of CSV data
+	 * @param charset   the charset used to encode the stream
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 */
+	public CSVWriter(OutputStream stream, Charset charset, char delimiter) {
+		this(new OutputStreamWriter(stream, charset), delimiter);
+	}
+
+	/**
+	 * Creates a {@code CSVWriter} writing to the provided channel using the specified charset and delimiter.
+	 *
+	 * @param channel   the destination of CSV data
+	 * @param charset   the charset used to encode the channel
+	 * @param delimiter the delimiter used for separating columns in the CSV
+	 */
+	public CSVWriter(FileChannel channel, Charset charset, char delimiter) {
+		this(Channels.newWriter(channel, charset.newEncoder(), DEFAULT_BUFFER_SIZE), delimiter);
+	}
+
+	/**
+	 * Writes the row.
+	 *
+	 * @param row the row to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVWriter writeRow(CSVRow row) throws IOException {
+		if (started)
+			write('\n');
+		started = true;
+		for (int column = 0; column < row.columns(); column++) {
+			if (column > 0)
+				write(delimiter);
+			writeField(row.get(column));
+		}
+		return this;
+	}
+
+	/**
+	 * Writes all rows of the table.
+	 *
+	 * @param table the table to write
+	 *
+	 * @return a reference to this object
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CSVWriter writeTable(CSVTable table) throws IOException {
+		for (int row = 0; row < table.rowCount(); row++)
+			writeRow(table.getRow(row));
+		return this;
+	}
+
+	/**
+	 * Writes the row with every field padded with spaces to the width of its column.
+	 */
+	CSVWriter writeAlignedRow(CSVRow row, int[] widths) throws IOException {
+		if (started)
+			write('\n');
+		started = true;
+		for (int column = 0; column < row.columns(); column++) {
+			if (column > 0)
+				write(delimiter);
+			pad(widths[column] - writeField(row.get(column)));
+		}
+		return this;
+	}
+
+	private int writeField(Object data) throws IOException {
+		if (Objects.isNull(data))
+			return 0;
+		String string = data.toString();
+		if (!needsQuotes(string, delimiter)) {
+			write(string, 0, string.length());
+			return string.length();
+		}
+		write('\"');
+		int length = string.length() + 2;
+		int start = 0;
+		for (int i = 0; i < string.length(); i++)
+			if (string.charAt(i) == '\"') {
+				write(string, start, i + 1);
+				start = i;
+				length++;
+			}
+		write(string, start, string.length());
+		write('\"');
+		return length;
+	}
+
+	/**
+	 * Returns the length of the data as it is written, including the enclosing and doubled quotes, without building the
+	 * escaped string.
+	 */
+	static int escapedLength(Object data, char delimiter) {
+		if (Objects.isNull(data))
+			return 0;
+		String string = data.toString();
+		int length = string.length();
+		boolean quotes = isPadded(string);
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == '\"') {
+				quotes = true;
+				length++;
+			} else if (c == delimiter || c == '\n' || c == '\r')
+				quotes = true;
+		}
+		return quotes ? length + 2 : length;
+	}
+
+	/**
+	 * Returns whether the string has to be quoted, i.e. whether it contains the delimiter, a quote or a line break, or
+	 * whether it would not be read back as itself unquoted because it is empty or starts or ends with whitespace.
+	 */
+	static boolean needsQuotes(String string, char delimiter) {
+		if (isPadded(string))
+			return true;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == delimiter || c == '\"' || c == '\n' || c == '\r')
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the string is empty or starts or ends with a character that is trimmed from unquoted fields.
+	 */
+	private static boolean isPadded(String string) {
+		return string.isEmpty() || string.charAt(0) <= ' ' || string.charAt(string.length() - 1) <= ' ';
+	}
+
+	/**
+	 * Appends the string enclosed in quotes, doubling the quotes it contains.
+	 */
+	static StringBuilder quote(String string, StringBuilder builder) {
+		builder.append('\"');
+		int start = 0;
+		for (int i = 0; i < string.length(); i++)
+			if (string.charAt(i) == '\"') {
+				builder.append(string, start, i + 1);
+				start = i;
+			}
+		return builder.append(string, start, string.length()).append('\"');
+	}
+
+	private void write(char c) throws IOException {
+		if (position == buffer.length)
+			flushBuffer();
+		buffer[position++] = c;
+	}
+
+	private void write(String string, int start, int end) throws IOException {
+		while (start < end) {
+			if (position == buffer.length)
+				flushBuffer();
+			int count = Math.min(end - start, buffer.length - position);
+			string.getChars(start, start + count, buffer, position);
+			position += count;
+			start += count;
+		}
+	}
+
+	private void pad(int count) throws IOException {
+		while (count > 0) {
+			if (position == buffer.length)
+				flushBuffer();
+			int length = Math.min(count, buffer.length - position);
+			Arrays.fill(buffer, position, position + length, ' ');
+			position += length;
+			count -= length;
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		writer.write(buffer, 0, position);
+		position = 0;
+	}
+
+	/**
+	 * Returns the delimiter used for separating columns.
+	 *
+	 * @return the delimiter character
+	 */
+	public char delimiter() {
+		return delimiter;
+	}
+
+	/**
+	 * Writes the buffered characters and flushes the underlying writer.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		writer.flush();
+	}
+
+	/**
+	 * Writes the buffered characters and closes the underlying writer.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBuffer();
+		} finally {
+			writer.close();
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.kaba4cow.csvtable;
+
+/**
+ * Reference to a column of a {@link CSVTable} by its name in the header. The name is resolved once and the reference
+ * keeps pointing to the same column when columns are inserted, removed or reordered; it is resolved again only after
+ * the header changes.
+ */
+public class ColumnRef {
+
+	private final CSVTable table;
+	private final String name;
+	private int slot;
+	private int epoch;
+
+	ColumnRef(CSVTable table, String name) {
+		this.table = table;
+		this.name = name;
+		this.slot = table.slot(name);
+		this.epoch = table.epoch();
+	}
+
+	/**
+	 * Returns the name of the referenced column.
+	 *
+	 * @return the name of the column
+	 */
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Returns the table that the referenced column belongs to.
+	 *
+	 * @return the {@link CSVTable} of the column
+	 */
+	public CSVTable table() {
+		return table;
+	}
+
+	/**
+	 * Returns the current index of the referenced column.
+	 *
+	 * @return the index of the column
+	 * 
+	 * @throws IllegalArgumentException if the header no longer has a column with the name of this reference
+	 */
+	public int index() {
+		slot(table);
+		return table.columnIndex(name);
+	}
+
+	/**
+	 * Returns the slot of the referenced column in the rows of the specified table.
+	 *
+	 * @throws IllegalArgumentException if the column does not belong to the table or is no longer in its header
+	 */
+	int slot(CSVTable table) {
+		if (table != this.table)
+			throw new IllegalArgumentException(String.format("Column %s belongs to another table", name));
+		int current = table.epoch();
+		if (epoch != current) {
+			slot = table.slot(name);
+			epoch = table.epoch();
+		}
+		return slot;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
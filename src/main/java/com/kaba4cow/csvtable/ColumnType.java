@@ -0,0 +1,252 @@
+package com.kaba4cow.csvtable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalQuery;
+
+/**
+ * Type of the values of a CSV column. Values are parsed straight from the characters of a field, and a field that does
+ * not match the type of its column is kept as a {@link String}.
+ */
+public enum ColumnType {
+
+	/**
+	 * Values parsed as {@link Integer}.
+	 */
+	INTEGER {
+		@Override
+		Object parse(CharSequence field) {
+			long value = parseLong(field, 0, field.length());
+			return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (Object) (int) value : null;
+		}
+	},
+
+	/**
+	 * Values parsed as {@link Long}.
+	 */
+	LONG {
+		@Override
+		Object parse(CharSequence field) {
+			long value = parseLong(field, 0, field.length());
+			return value != INVALID || MIN_LONG.contentEquals(field) ? (Object) value : null;
+		}
+	},
+
+	/**
+	 * Decimal numbers, with an optional point and exponent, parsed as {@link Double}.
+	 */
+	DOUBLE {
+		@Override
+		Object parse(CharSequence field) {
+			return parseDouble(field);
+		}
+	},
+
+	/**
+	 * Values {@code true} and {@code false}, in any case, parsed as {@link Boolean}.
+	 */
+	BOOLEAN {
+		@Override
+		Object parse(CharSequence field) {
+			if (equalsIgnoreCase(field, "true"))
+				return Boolean.TRUE;
+			else if (equalsIgnoreCase(field, "false"))
+				return Boolean.FALSE;
+			else
+				return null;
+		}
+	},
+
+	/**
+	 * ISO-8601 dates parsed as {@link LocalDate}.
+	 */
+	DATE {
+		@Override
+		Object parse(CharSequence field) {
+			return parseTemporal(field, DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from);
+		}
+	},
+
+	/**
+	 * ISO-8601 times parsed as {@link LocalTime}.
+	 */
+	TIME {
+		@Override
+		Object parse(CharSequence field) {
+			return parseTemporal(field, DateTimeFormatter.ISO_LOCAL_TIME, LocalTime::from);
+		}
+	},
+
+	/**
+	 * ISO-8601 date-times parsed as {@link LocalDateTime}.
+	 */
+	DATE_TIME {
+		@Override
+		Object parse(CharSequence field) {
+			return parseTemporal(field, DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::from);
+		}
+	},
+
+	/**
+	 * Values kept as {@link String}.
+	 */
+	STRING {
+		@Override
+		Object parse(CharSequence field) {
+			return field.toString();
+		}
+	};
+
+	private static final long INVALID = Long.MIN_VALUE;
+	private static final String MIN_LONG = Long.toString(Long.MIN_VALUE);
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+			1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final int MAX_EXPONENT = POWERS_OF_TEN.length - 1;
+
+	/**
+	 * Parses the field into a value of this type.
+	 *
+	 * @return the parsed value, or {@code null} if the field does not match this type
+	 */
+	abstract Object parse(CharSequence field);
+
+	private static long parseLong(CharSequence field, int index, int length) {
+		if (index >= length)
+			return INVALID;
+		boolean negative = false;
+		char first = field.charAt(index);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			if (++index == length)
+				return INVALID;
+		}
+		long value = 0L;
+		for (; index < length; index++) {
+			int digit = field.charAt(index) - '0';
+			if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10)
+				return INVALID;
+			value = value * 10 - digit;
+		}
+		if (negative)
+			return value;
+		return value == Long.MIN_VALUE ? INVALID : -value;
+	}
+
+	private static Object parseDouble(CharSequence field) {
+		int length = field.length();
+		int index = 0;
+		boolean negative = false;
+		if (length > 0 && (field.charAt(0) == '-' || field.charAt(0) == '+')) {
+			negative = field.charAt(0) == '-';
+			index++;
+		}
+		long mantissa = 0L;
+		int digits = 0;
+		int exponent = 0;
+		boolean point = false;
+		for (; index < length; index++) {
+			char c = field.charAt(index);
+			if (c >= '0' && c <= '9') {
+				if (mantissa > (MAX_EXACT_MANTISSA - 9) / 10)
+					return parseSlow(field);
+				mantissa = mantissa * 10 + c - '0';
+				digits++;
+				if (point)
+					exponent--;
+			} else if (c == '.' && !point)
+				point = true;
+			else
+				break;
+		}
+		if (index < length && (field.charAt(index) == 'e' || field.charAt(index) == 'E')) {
+			long explicit = parseLong(field, index + 1, length);
+			if (explicit < -MAX_EXPONENT || explicit > MAX_EXPONENT)
+				return parseSlow(field);
+			exponent += explicit;
+			index = length;
+		}
+		if (digits == 0 || index < length || exponent < -MAX_EXPONENT || exponent > MAX_EXPONENT)
+			return parseSlow(field);
+		double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+		return negative ? -value : value;
+	}
+
+	private static Object parseSlow(CharSequence field) {
+		if (!isDecimal(field, false, false))
+			return null;
+		try {
+			return Double.parseDouble(field.toString());
+		} catch (NumberFormatException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns whether the field is written as a decimal number: an optional sign, digits with an optional point and an
+	 * optional exponent, as read by {@link #DOUBLE}. Other forms accepted by {@link Double#parseDouble(String)}, such as
+	 * type suffixes, hexadecimal numbers or {@code NaN}, are not decimal numbers. A canonical number has no plus sign, no
+	 * leading zeros and digits on both sides of its point, and an integral number has neither a point nor an exponent.
+	 */
+	static boolean isDecimal(CharSequence field, boolean canonical, boolean integral) {
+		int length = field.length();
+		int index = 0;
+		if (index < length && (field.charAt(index) == '-' || !canonical && field.charAt(index) == '+'))
+			index++;
+		int start = index;
+		index = digits(field, index);
+		int integer = index - start;
+		if (canonical && (integer == 0 || field.charAt(start) == '0' && integer > 1))
+			return false;
+		if (integral)
+			return integer > 0 && index == length;
+		if (index < length && field.charAt(index) == '.') {
+			int point = ++index;
+			index = digits(field, index);
+			if (integer + index - point == 0 || canonical && index == point)
+				return false;
+		} else if (integer == 0)
+			return false;
+		if (index < length && (field.charAt(index) == 'e' || field.charAt(index) == 'E')) {
+			int exponent = index + 1;
+			if (exponent < length && (field.charAt(exponent) == '-' || field.charAt(exponent) == '+'))
+				exponent++;
+			index = digits(field, exponent);
+			if (index == exponent)
+				return false;
+		}
+		return index == length;
+	}
+
+	/**
+	 * Returns the index of the first character at or after the specified index that is not an ASCII digit.
+	 */
+	private static int digits(CharSequence field, int index) {
+		while (index < field.length() && field.charAt(index) >= '0' && field.charAt(index) <= '9')
+			index++;
+		return index;
+	}
+
+	private static Object parseTemporal(CharSequence field, DateTimeFormatter formatter, TemporalQuery<?> query) {
+		if (field.length() < 5 || !Character.isDigit(field.charAt(0)))
+			return null;
+		try {
+			return formatter.parse(field, query);
+		} catch (DateTimeParseException exception) {
+			return null;
+		}
+	}
+
+	private static boolean equalsIgnoreCase(CharSequence field, String string) {
+		if (field.length() != string.length())
+			return false;
+		for (int i = 0; i < string.length(); i++)
+			if (Character.toLowerCase(field.charAt(i)) != string.charAt(i))
+				return false;
+		return true;
+	}
+
+}
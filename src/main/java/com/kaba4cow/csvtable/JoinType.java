@@ -0,0 +1,26 @@
+package com.kaba4cow.csvtable;
+
+/**
+ * Kind of join between two tables, deciding which rows of the left table appear in the result.
+ *
+ * @see CSVTable#join(CSVTable, int[], int[], JoinType, boolean)
+ */
+public enum JoinType {
+
+	/**
+	 * A row of the result for every pair of matching rows.
+	 */
+	INNER,
+
+	/**
+	 * A row of the result for every pair of matching rows, and for every row of the left table without a match, with
+	 * {@code null} values in the columns of the right table.
+	 */
+	LEFT,
+
+	/**
+	 * A row of the result for every row of the left table without a match, holding only the columns of the left table.
+	 */
+	ANTI;
+
+}
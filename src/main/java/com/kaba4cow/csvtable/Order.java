@@ -0,0 +1,20 @@
+package com.kaba4cow.csvtable;
+
+/**
+ * Direction in which rows are sorted by the values of a column.
+ *
+ * @see CSVTable#sortBy(int, ColumnType, Order, boolean)
+ */
+public enum Order {
+
+	/**
+	 * From the smallest value to the largest.
+	 */
+	ASCENDING,
+
+	/**
+	 * From the largest value to the smallest.
+	 */
+	DESCENDING;
+
+}
@@ -0,0 +1,62 @@
+package com.kaba4cow.csvtable;
+
+import java.util.Objects;
+
+/**
+ * Key by which the rows of a {@link CSVTable} are sorted: a column, the type its values are compared as, and the sort
+ * order.
+ *
+ * @see CSVTable#sortBy(boolean, SortKey...)
+ */
+public class SortKey {
+
+	private final int column;
+	private final ColumnType type;
+	private final Order order;
+
+	/**
+	 * Creates a {@code SortKey} comparing the values of the specified column as the specified type.
+	 *
+	 * @param column the index of the column
+	 * @param type   the type the values of the column are compared as
+	 * @param order  the sort order
+	 */
+	public SortKey(int column, ColumnType type, Order order) {
+		this.column = column;
+		this.type = Objects.requireNonNull(type);
+		this.order = Objects.requireNonNull(order);
+	}
+
+	/**
+	 * Returns the index of the column.
+	 *
+	 * @return the index of the column
+	 */
+	public int column() {
+		return column;
+	}
+
+	/**
+	 * Returns the type the values of the column are compared as.
+	 *
+	 * @return the type of the values
+	 */
+	public ColumnType type() {
+		return type;
+	}
+
+	/**
+	 * Returns the sort order.
+	 *
+	 * @return the sort order
+	 */
+	public Order order() {
+		return order;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s %s %s", column, type, order);
+	}
+
+}